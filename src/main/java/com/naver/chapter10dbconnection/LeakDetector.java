@@ -0,0 +1,53 @@
+package com.naver.chapter10dbconnection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 임계 시간 이상 반납되지 않은 커넥션을 대여 위치(스택)와 함께 보고
+class LeakDetector {
+    private final long thresholdNanos;
+    private final Map<MockConnection, BorrowRecord> borrowed = new ConcurrentHashMap<>();
+
+    LeakDetector(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    void onBorrow(MockConnection conn) {
+        Thread current = Thread.currentThread();
+        borrowed.put(conn, new BorrowRecord(current.getName(), conn.borrowedAt, new Throwable("커넥션 대여 위치")));
+    }
+
+    void onRelease(MockConnection conn) {
+        BorrowRecord record = borrowed.remove(conn);
+        if (record != null && record.reported) {
+            System.out.println("[Leak] " + conn + " 이(가) 뒤늦게 반납됨 (대여 스레드: " + record.threadName + ")");
+        }
+    }
+
+    // 새로 임계 시간을 넘긴 커넥션 수를 돌려줌 (같은 대여는 한 번만 보고)
+    int check() {
+        long now = System.nanoTime();
+        int found = 0;
+        for (Map.Entry<MockConnection, BorrowRecord> entry : borrowed.entrySet()) {
+            BorrowRecord record = entry.getValue();
+            long held = now - record.borrowedAt;
+            if (!record.reported && held >= thresholdNanos) {
+                record.reported = true;
+                found++;
+                System.out.println("[Leak] " + entry.getKey() + " 이(가) " + TimeUnit.NANOSECONDS.toMillis(held)
+                        + "ms 동안 반납되지 않음 (대여 스레드: " + record.threadName + ")");
+                record.stack.printStackTrace(System.out);
+            }
+        }
+        return found;
+    }
+
+    private static class BorrowRecord {
+        final String threadName;
+        final long borrowedAt;
+        final Throwable stack;
+        volatile boolean reported;
+        BorrowRecord(String threadName, long borrowedAt, Throwable stack) {this.threadName = threadName;this.borrowedAt = borrowedAt;this.stack = stack;}
+    }
+}
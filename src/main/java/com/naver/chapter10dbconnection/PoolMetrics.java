@@ -0,0 +1,98 @@
+package com.naver.chapter10dbconnection;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+// 커넥션 풀 상태 지표 (게이지 + 히스토그램 + 카운터)
+class PoolMetrics {
+    private final IntSupplier idleGauge;
+    // 대여 중인 커넥션 수 (대여 확정 시 +1, 반납 시 -1 - 생성 중인 커넥션은 포함하지 않음)
+    final AtomicInteger active = new AtomicInteger();
+    // 커넥션을 기다리고 있는 호출자 수
+    final AtomicInteger pending = new AtomicInteger();
+
+    final LatencyHistogram borrowWait = new LatencyHistogram();
+    final LatencyHistogram holdTime = new LatencyHistogram();
+
+    final LongAdder borrowCount = new LongAdder();
+    final LongAdder timeoutCount = new LongAdder();
+    final LongAdder createdCount = new LongAdder();
+    final LongAdder retiredCount = new LongAdder();
+    final LongAdder leakCount = new LongAdder();
+
+    PoolMetrics(IntSupplier idleGauge) {
+        this.idleGauge = idleGauge;
+    }
+
+    public int getActive() { return active.get(); }
+
+    public int getIdle() { return idleGauge.getAsInt(); }
+
+    public int getPending() { return pending.get(); }
+
+    public long getTimeouts() { return timeoutCount.sum(); }
+
+    public LatencyHistogram getBorrowWait() { return borrowWait; }
+
+    public LatencyHistogram getHoldTime() { return holdTime; }
+
+    public String report() {
+        return "[Pool-Metrics] active=" + getActive() + ", idle=" + getIdle() + ", pending=" + getPending()
+                + ", borrows=" + borrowCount.sum() + ", timeouts=" + getTimeouts()
+                + ", created=" + createdCount.sum() + ", retired=" + retiredCount.sum() + ", leaks=" + leakCount.sum()
+                + "\n  borrowWait " + borrowWait
+                + "\n  holdTime   " + holdTime;
+    }
+}
+
+// 2의 거듭제곱 구간(마이크로초)으로 나눈 락-프리 지연 시간 히스토그램
+class LatencyHistogram {
+    private static final int BUCKETS = 40;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() { return count.sum(); }
+
+    public long getMaxMicros() { return maxMicros.get(); }
+
+    public long getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : sumMicros.sum() / n;
+    }
+
+    // 해당 백분위가 속한 구간의 상한값 (마이크로초)
+    public long percentileMicros(double percentile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(i == 0 ? 0 : (1L << i) - 1, maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + getMeanMicros() + "us, p50<=" + percentileMicros(50)
+                + "us, p99<=" + percentileMicros(99) + "us, max=" + getMaxMicros() + "us";
+    }
+}
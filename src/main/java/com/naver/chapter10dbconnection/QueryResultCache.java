@@ -0,0 +1,159 @@
+package com.naver.chapter10dbconnection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// DatabaseService 와 커넥션 풀 사이의 2차 캐시 (SQL + 파라미터 -> 결과, 테이블 단위 무효화)
+class QueryResultCache {
+    private static final Pattern TABLE_PATTERN =
+            Pattern.compile("\\b(?:FROM|JOIN|INTO|UPDATE)\\s+([A-Za-z_][A-Za-z0-9_]*)", Pattern.CASE_INSENSITIVE);
+
+    private final int maxEntries;
+    // 조회(get)는 락 없이, 넣기/내보내기/무효화는 this 락 안에서 (entries, dependents, order 를 함께 바꿈)
+    private final Map<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+    // 테이블 -> 그 테이블에 의존하는 캐시 키
+    private final Map<String, Set<CacheKey>> dependents = new HashMap<>();
+    // 넣은 순서 (상한을 넘으면 가장 오래된 것부터 내보냄)
+    private final Set<CacheKey> order = new LinkedHashSet<>();
+    // 테이블별 버전 (커밋마다 증가) - 조회 도중 커밋된 결과가 캐시에 들어가는 것을 막음
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    QueryResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // SQL 에서 참조하는 테이블 이름 추출 (소문자로 정규화)
+    static Set<String> tablesOf(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase());
+        }
+        return tables;
+    }
+
+    String get(CacheKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    // 조회 시작 전에 스냅샷을 찍어 두고, 결과를 넣을 때 그 사이 커밋이 있었는지 확인
+    long[] snapshot(Set<String> tables) {
+        long[] versions = new long[tables.size()];
+        int i = 0;
+        for (String table : tables) {
+            versions[i++] = versionOf(table).get();
+        }
+        return versions;
+    }
+
+    synchronized void put(CacheKey key, Set<String> tables, long[] snapshot, String result) {
+        // 조회하는 사이에 커밋이 있었으면 이미 낡은 값 (버전 증가는 invalidate 안에서만, 같은 락이므로 확인 뒤에 끼어들 수 없음)
+        if (!Arrays.equals(snapshot, snapshot(tables))) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(result, tables));
+        if (previous != null) unregister(key, previous);
+        order.add(key);
+        for (String table : tables) {
+            dependents.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+        }
+        while (entries.size() > maxEntries) {
+            evictOne();
+        }
+    }
+
+    // 커밋이 확정된 테이블의 캐시를 무효화
+    synchronized void invalidate(Collection<String> tables) {
+        for (String table : tables) {
+            versionOf(table).incrementAndGet();
+            Set<CacheKey> keys = dependents.remove(table);
+            if (keys != null) {
+                for (CacheKey key : keys) {
+                    Entry removed = entries.remove(key);
+                    if (removed != null) unregister(key, removed);
+                }
+                System.out.println("[QueryCache] '" + table + "' 변경 커밋 -> 캐시 " + keys.size() + "건 무효화");
+            }
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public int size() { return entries.size(); }
+
+    private AtomicLong versionOf(String table) {
+        return tableVersions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    // 가장 먼저 넣은 항목을 내보냄 (락 안에서 호출)
+    private void evictOne() {
+        Iterator<CacheKey> it = order.iterator();
+        if (!it.hasNext()) return;
+        CacheKey victim = it.next();
+        Entry removed = entries.remove(victim);
+        if (removed != null) unregister(victim, removed);
+        else it.remove();
+    }
+
+    // 키를 넣은 순서와 테이블별 의존 목록에서 뺌 (빈 목록은 테이블째 정리)
+    private void unregister(CacheKey key, Entry entry) {
+        order.remove(key);
+        for (String table : entry.tables) {
+            Set<CacheKey> keys = dependents.get(table);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                dependents.remove(table);
+            }
+        }
+    }
+
+    static final class CacheKey {
+        final String sql;
+        final Object[] params;
+        private final int hash;
+
+        CacheKey(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = params;
+            this.hash = 31 * sql.hashCode() + Arrays.hashCode(params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash && sql.equals(other.sql) && Arrays.equals(params, other.params);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+
+    private static final class Entry {
+        final String result;
+        final Set<String> tables;
+        Entry(String result, Set<String> tables) {this.result = result;this.tables = tables;}
+    }
+}
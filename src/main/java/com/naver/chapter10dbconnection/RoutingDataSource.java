@@ -0,0 +1,96 @@
+package com.naver.chapter10dbconnection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 쓰기는 primary 로, 읽기 전용 트랜잭션은 레플리카 중 한 곳으로 보내는 데이터소스
+class RoutingDataSource implements ConnectionSource {
+    enum Strategy { LEAST_OUTSTANDING, POWER_OF_TWO_CHOICES }
+
+    private static final int PRIMARY = 0;
+
+    // 0번 = primary, 1번부터 = replica
+    private final TinyDataSource[] pools;
+    private final Strategy strategy;
+    // 풀별로 빌려간 뒤 아직 돌려주지 않은 요청 수
+    private final AtomicIntegerArray outstanding;
+    // 풀별 누적 라우팅 횟수
+    private final AtomicLongArray routed;
+    // 어느 풀에서 빌린 커넥션인지 기억 (반납 시 원래 풀로 돌려보냄)
+    private final Map<MockConnection, Integer> borrowedFrom = new ConcurrentHashMap<>();
+
+    public RoutingDataSource(TinyDataSource primary, List<TinyDataSource> replicas, Strategy strategy) {
+        this.pools = new TinyDataSource[replicas.size() + 1];
+        this.pools[PRIMARY] = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.pools[i + 1] = replicas.get(i);
+        }
+        this.strategy = strategy;
+        this.outstanding = new AtomicIntegerArray(pools.length);
+        this.routed = new AtomicLongArray(pools.length);
+    }
+
+    @Override
+    public MockConnection getConnection() throws InterruptedException {
+        // 트랜잭션 중에는 TransactionContext 가 첫 커넥션을 붙잡아 두므로 여기는 트랜잭션당 한 번만 옴
+        TransactionContext tx = TransactionContext.current();
+        int index = (tx != null && tx.readOnly) ? chooseReplica() : PRIMARY;
+        outstanding.incrementAndGet(index);
+        routed.incrementAndGet(index);
+        try {
+            MockConnection conn = pools[index].getConnection();
+            borrowedFrom.put(conn, index);
+            System.out.println("[Routing] " + (index == PRIMARY ? "primary" : "replica-" + index) + " 선택 (outstanding: " + outstanding + ")");
+            return conn;
+        } catch (InterruptedException | RuntimeException e) {
+            outstanding.decrementAndGet(index);
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(MockConnection conn) {
+        if (conn == null) {
+            return;
+        }
+        Integer index = borrowedFrom.remove(conn);
+        if (index == null) {
+            throw new IllegalStateException(conn + " 은(는) 이 데이터소스에서 빌린 커넥션이 아닙니다.");
+        }
+        outstanding.decrementAndGet(index);
+        pools[index].releaseConnection(conn);
+    }
+
+    public int getOutstanding(int index) { return outstanding.get(index); }
+
+    // index 0 = primary, 1.. = replica
+    public long getRoutedCount(int index) { return routed.get(index); }
+
+    private int chooseReplica() {
+        int replicas = pools.length - 1;
+        if (replicas == 0) {
+            return PRIMARY;
+        }
+        if (strategy == Strategy.POWER_OF_TWO_CHOICES) {
+            // 무작위 두 곳 중 덜 바쁜 곳 - 전체를 보지 않고도 쏠림을 피함
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int a = 1 + random.nextInt(replicas);
+            int b = replicas == 1 ? a : 1 + (a + random.nextInt(replicas - 1)) % replicas;
+            return outstanding.get(b) < outstanding.get(a) ? b : a;
+        }
+        // 가장 적게 밀려 있는 레플리카 (동점이면 무작위 시작점에서 먼저 만난 곳)
+        int start = ThreadLocalRandom.current().nextInt(replicas);
+        int best = 1 + start;
+        for (int i = 1; i < replicas; i++) {
+            int candidate = 1 + (start + i) % replicas;
+            if (outstanding.get(candidate) < outstanding.get(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
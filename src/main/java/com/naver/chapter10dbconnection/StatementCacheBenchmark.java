@@ -0,0 +1,32 @@
+package com.naver.chapter10dbconnection;
+
+import java.util.concurrent.TimeUnit;
+
+// 문장 캐시 유무에 따른 prepareStatement 비용 비교 (로컬 측정용)
+public class StatementCacheBenchmark {
+    private static final int SHAPES = 40;
+    private static final int ITERATIONS = 20_000;
+
+    public static void main(String[] args) {
+        // DatabaseService 처럼 수십 가지 문장 형태가 반복되는 상황
+        String[] sqls = new String[SHAPES];
+        for (int i = 0; i < SHAPES; i++) {
+            sqls[i] = "SELECT * FROM table_" + i + " WHERE id = ?";
+        }
+
+        System.out.println("--- 문장 캐시 벤치마크 (문장 " + SHAPES + "종, " + ITERATIONS + "회 실행) ---");
+        run("캐시 없음   ", new MockConnection(1, 0), sqls);
+        run("캐시 16개   ", new MockConnection(2, 16), sqls);
+        run("캐시 64개   ", new MockConnection(3, 64), sqls);
+    }
+
+    private static void run(String label, MockConnection conn, String[] sqls) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            conn.prepareStatement(sqls[i % sqls.length]);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(label + ": " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms"
+                + " (hit=" + conn.getStatementCacheHits() + ", miss=" + conn.getStatementCacheMisses() + ")");
+    }
+}
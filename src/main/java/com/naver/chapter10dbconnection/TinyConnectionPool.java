@@ -1,71 +1,548 @@
 package com.naver.chapter10dbconnection;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// 파싱이 끝난 SQL 문장 (실제 드라이버의 PreparedStatement 에 해당)
+class MockStatement {
+    // 실제 드라이버의 SQL 파싱/플랜 비용을 흉내낸 값
+    static final long PARSE_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    final String sql;
+    final String[] tokens;
+    final int parameterCount;
+
+    private MockStatement(String sql, String[] tokens, int parameterCount) {
+        this.sql = sql;
+        this.tokens = tokens;
+        this.parameterCount = parameterCount;
+    }
+
+    static MockStatement parse(String sql) {
+        long deadline = System.nanoTime() + PARSE_COST_NANOS;
+        String[] tokens = sql.trim().split("\\s+");
+        int parameterCount = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') parameterCount++;
+        }
+        // 남은 파싱 비용만큼 CPU 를 소모 (sleep 은 ms 단위라 부정확)
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return new MockStatement(sql, tokens, parameterCount);
+    }
+}
 
 // 가상의 DB 연결 클래스
 class MockConnection {
     private final int id;
+    // 커넥션별 LRU 문장 캐시 (커넥션은 한 번에 한 스레드만 쓰므로 동기화 불필요)
+    private final Map<String, MockStatement> statementCache;
+    private long statementCacheHits;
+    private long statementCacheMisses;
+    // 마지막으로 풀에 반납된 시각 (유휴 시간 계산용)
+    volatile long lastReleasedAt = System.nanoTime();
+    // 마지막으로 대여된 시각 (점유 시간 및 누수 감지용, 대여 중이 아니면 0)
+    volatile long borrowedAt;
+    // 쿼리 한 번에 걸리는 가상 지연 시간 (풀마다 다른 DB 서버를 흉내낼 때 사용)
+    volatile long latencyMillis;
 
     public MockConnection(int id) {
+        this(id, 0);
+    }
+
+    public MockConnection(int id, int statementCacheSize) {
         this.id = id;
+        this.statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MockStatement> eldest) {
+                return size() > statementCacheSize;
+            }
+        };
         // 실제로는 여기서 드라이버 로드 및 네트워크 연결이 일어남 (매우 무거운 작업)
-        try { Thread.sleep(500); } catch (InterruptedException e) { e.printStackTrace(); }
+        try { Thread.sleep(500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
     }
 
     public void excuteQuery(String sql) {
-        System.out.println("[DB-Conn-] " + id + "] 실행 중: " + sql);
+        MockStatement statement = prepareStatement(sql);
+        System.out.println("[DB-Conn-] " + id + "] 실행 중: " + statement.sql);
+        if (latencyMillis > 0) {
+            try { Thread.sleep(latencyMillis); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+    }
+
+    public void commit() {
+        System.out.println("[DB-Conn-] " + id + "] commit");
+    }
+
+    public void rollback() {
+        System.out.println("[DB-Conn-] " + id + "] rollback");
+    }
+
+    // SQL 문자열이 같으면 이전에 파싱한 문장을 재사용
+    public MockStatement prepareStatement(String sql) {
+        MockStatement statement = statementCache.get(sql);
+        if (statement != null) {
+            statementCacheHits++;
+            return statement;
+        }
+        statementCacheMisses++;
+        statement = MockStatement.parse(sql);
+        statementCache.put(sql, statement);
+        return statement;
+    }
+
+    public long getStatementCacheHits() { return statementCacheHits; }
+
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+
+    public void close() {
+        System.out.println("[DB-Conn-] " + id + "] 연결 종료");
     }
 
     @Override
     public String toString() { return "Connection-" + id;}
 }
 
-// 커넥션 풀 구현
-class TinyDataSource {
-    private final int poolSize;
+// 커넥션을 빌려주고 돌려받는 쪽의 공통 규약 (단일 풀, 라우팅 풀 모두 구현)
+interface ConnectionSource {
+    MockConnection getConnection() throws InterruptedException;
+    void releaseConnection(MockConnection conn);
+}
+
+// 커넥션 풀 구현 (minIdle ~ maxSize 사이에서 탄력적으로 크기가 변함)
+class TinyDataSource implements ConnectionSource {
+    private static final long CONNECTION_TIMEOUT_MILLIS = 5000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    private final int minIdle;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final int statementCacheSize;
+    // 유휴 커넥션 보관소 (앞쪽 = 최근 반납, 뒤쪽 = 가장 오래 놀고 있는 커넥션)
     private final BlockingDeque<MockConnection> pool;
     private final AtomicInteger createCount = new AtomicInteger(0);
+    // 생성 중인 것까지 포함한 전체 커넥션 수 (maxSize 초과 생성을 막는 슬롯 카운터)
+    private final AtomicInteger totalCount = new AtomicInteger(0);
+
+    // 커넥션 생성은 무거우므로 전용 스레드에서 병렬로 처리
+    private final ExecutorService creator = Executors.newCachedThreadPool(daemon("pool-creator"));
+    // 유휴 커넥션 정리 및 minIdle 유지를 담당하는 하우스키퍼
+    private final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(daemon("pool-housekeeper"));
+    private final PoolMetrics metrics;
+    // 누수 감지는 선택 사항 (setLeakDetectionThreshold 로 켬)
+    private volatile LeakDetector leakDetector;
+    private ScheduledFuture<?> leakCheck;
+    private volatile long simulatedLatencyMillis;
+    // 커넥션을 기다리는 대기자 (동기/비동기 공통, 반납 시 직접 커넥션을 넘겨받음)
+    private final Queue<AsyncWaiter> asyncWaiters = new ConcurrentLinkedQueue<>();
+    // 대기열 등록/유휴 큐 확인과 반납/넘겨주기를 묶는 락
+    private final Object handOffLock = new Object();
+    private volatile boolean closed;
+    // 모든 비동기 대기자의 타임아웃을 처리하는 공용 타이머
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemon("pool-timer"));
 
     public TinyDataSource(int poolSize) {
-        this.poolSize = poolSize;
-        this.pool = new LinkedBlockingDeque<>(poolSize);
-        System.out.println("--- TinyDataSource 초기화 (Pool Szie: " + poolSize + ")---");
+        this(poolSize, poolSize, 30_000);
+    }
+
+    public TinyDataSource(int minIdle, int maxSize, long idleTimeoutMillis) {
+        this(minIdle, maxSize, idleTimeoutMillis, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
 
-        // 초기 연결 생성 (Eager Initalization)
-        for (int i = 0; i < poolSize; i++) {
-            pool.add(new MockConnection(createCount.incrementAndGet()));
+    public TinyDataSource(int minIdle, int maxSize, long idleTimeoutMillis, int statementCacheSize) {
+        if (minIdle < 0 || maxSize < 1 || minIdle > maxSize) {
+            throw new IllegalArgumentException("잘못된 풀 설정: minIdle=" + minIdle + ", maxSize=" + maxSize);
         }
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.statementCacheSize = statementCacheSize;
+        this.pool = new LinkedBlockingDeque<>(maxSize);
+        this.metrics = new PoolMetrics(pool::size);
+        System.out.println("--- TinyDataSource 초기화 (minIdle: " + minIdle + ", maxSize: " + maxSize + ")---");
+
+        // 초기 연결 생성 (병렬) - 기동은 minIdle 개만 기다림
+        List<CompletableFuture<Void>> initial = new ArrayList<>();
+        for (int i = 0; i < minIdle; i++) {
+            initial.add(addConnectionAsync());
+        }
+        CompletableFuture.allOf(initial.toArray(new CompletableFuture[0])).join();
+
+        long period = Math.max(1, idleTimeoutMillis / 2);
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, period, period, TimeUnit.MILLISECONDS);
     }
 
-    // 연결 빌려오기
+    // 연결 빌려오기 - 놀고 있는 커넥션이 없으면 비동기 대기자와 같은 대기열에 줄을 섬 (먼저 온 순서대로 받음)
+    @Override
     public MockConnection getConnection() throws InterruptedException {
-        MockConnection conn = pool.poll(5, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        AsyncWaiter waiter = null;
+        MockConnection conn;
+        synchronized (handOffLock) {
+            conn = pool.pollFirst();
+            if (conn == null) {
+                waiter = new AsyncWaiter(start);
+                asyncWaiters.offer(waiter);
+            }
+        }
+        if (conn != null) {
+            prepareBorrow(conn);
+            recordBorrow(conn, start);
+        } else {
+            // 놀고 있는 커넥션이 없으면 백그라운드에서 하나 늘리고, 먼저 반납되거나 생성된 것을 받음
+            addConnectionAsync();
+            metrics.pending.incrementAndGet();
+            try {
+                conn = waiter.future.get(CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                conn = abandon(waiter);
+            } catch (InterruptedException e) {
+                MockConnection handed = abandon(waiter);
+                if (handed != null) releaseConnection(handed);
+                throw e;
+            } finally {
+                metrics.pending.decrementAndGet();
+            }
+        }
         if(conn == null) {
+            metrics.timeoutCount.increment();
             throw new RuntimeException("[Error] 연결 가능한 DB 커넥션이 없습니다! timeout");
         }
         System.out.println("[Pool] >>> " + conn + "대여됨 (남은 개수: " + pool.size() + ")");
         return conn;
     }
 
+    // 기다리기를 포기 - 그 사이 이미 넘겨받았다면 그 커넥션을 돌려줌
+    private MockConnection abandon(AsyncWaiter waiter) {
+        if (waiter.future.completeExceptionally(new RuntimeException("[Error] 연결 가능한 DB 커넥션이 없습니다! timeout"))) {
+            asyncWaiters.remove(waiter);
+            return null;
+        }
+        // 이미 실패로 끝남 (close 등) - 넘겨받은 커넥션이 없으므로 호출자는 타임아웃으로 처리
+        if (waiter.future.isCompletedExceptionally()) return null;
+        return waiter.future.getNow(null);
+    }
+
     // 연결 반납하기
+    @Override
     public void releaseConnection(MockConnection conn) {
-        if(conn == null) {
-            pool.offer(conn);
+        if(conn != null) {
+            long borrowedAt = conn.borrowedAt;
+            conn.lastReleasedAt = System.nanoTime();
+            // 대여된 적 없는 커넥션(중복 반납 등)은 점유 시간/활성 수에 반영하지 않음
+            if (borrowedAt != 0) {
+                conn.borrowedAt = 0;
+                metrics.holdTime.record(conn.lastReleasedAt - borrowedAt);
+                metrics.active.decrementAndGet();
+            }
+            LeakDetector detector = leakDetector;
+            if (detector != null) {
+                detector.onRelease(conn);
+            }
             System.out.println("[Pool] <<< " + conn + "반납됨 ( 남은 개수: " + pool.size() + ")" );
+            handOff(conn);
+        }
+    }
+
+    // 연결 비동기로 빌려오기 - 커넥션이 없으면 스레드를 재우지 않고 대기열에 등록만 함
+    // 완료 콜백은 반납한 스레드가 아니라 공용 비동기 실행기에서 돎 (반납 쪽이 사용자 코드에 붙잡히지 않음)
+    public CompletableFuture<MockConnection> getConnectionAsync() {
+        long start = System.nanoTime();
+        AsyncWaiter waiter = null;
+        MockConnection conn;
+        synchronized (handOffLock) {
+            conn = pool.pollFirst();
+            if (conn == null) {
+                waiter = new AsyncWaiter(start);
+                asyncWaiters.offer(waiter);
+            }
+        }
+        if (conn != null) {
+            prepareBorrow(conn);
+            recordBorrow(conn, start);
+            System.out.println("[Pool] >>> " + conn + "대여됨 (남은 개수: " + pool.size() + ")");
+            return CompletableFuture.completedFuture(conn);
         }
+
+        AsyncWaiter registered = waiter;
+        metrics.pending.incrementAndGet();
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (registered.future.completeExceptionally(new RuntimeException("[Error] 연결 가능한 DB 커넥션이 없습니다! timeout"))) {
+                metrics.timeoutCount.increment();
+                asyncWaiters.remove(registered);
+            }
+        }, CONNECTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        registered.future.whenComplete((c, e) -> {
+            metrics.pending.decrementAndGet();
+            timeout.cancel(false);
+        });
+        addConnectionAsync();
+        CompletableFuture<MockConnection> result = registered.future.thenApplyAsync(Function.identity());
+        // 호출자가 취소하거나 orTimeout 으로 포기하면 대기열에서 빼고, 그 사이 넘겨받은 커넥션은 반납 (안 하면 커넥션이 샘)
+        result.whenComplete((c, e) -> {
+            if (e == null) return;
+            MockConnection handed = abandon(registered);
+            if (handed != null) releaseConnection(handed);
+        });
+        return result;
+    }
+
+    public int getTotalCount() { return totalCount.get(); }
+
+    public int getIdleCount() { return pool.size(); }
+
+    public PoolMetrics getMetrics() { return metrics; }
+
+    // 이 풀의 커넥션으로 실행하는 쿼리마다 지연 시간을 더함 (서로 다른 DB 서버 흉내)
+    public void setSimulatedLatency(long millis) {
+        this.simulatedLatencyMillis = millis;
+    }
+
+    // 지정한 시간 이상 반납되지 않는 커넥션을 대여 위치와 함께 보고 (0 이하이면 끔)
+    public synchronized void setLeakDetectionThreshold(long thresholdMillis) {
+        if (leakCheck != null) {
+            leakCheck.cancel(false);
+            leakCheck = null;
+        }
+        if (thresholdMillis <= 0) {
+            leakDetector = null;
+            return;
+        }
+        leakDetector = new LeakDetector(thresholdMillis);
+        long period = Math.max(1, thresholdMillis / 2);
+        leakCheck = housekeeper.scheduleWithFixedDelay(this::checkLeaks, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // 풀 종료: 유휴 커넥션을 모두 닫음 (이후 생성이 끝나거나 반납되는 커넥션은 풀에 넣지 않고 바로 닫음)
+    public void close() {
+        List<MockConnection> idle = new ArrayList<>();
+        synchronized (handOffLock) {
+            closed = true;
+            pool.drainTo(idle);
+            AsyncWaiter waiter;
+            while ((waiter = asyncWaiters.poll()) != null) {
+                waiter.future.completeExceptionally(new IllegalStateException("[Error] 커넥션 풀이 종료되었습니다."));
+            }
+        }
+        timer.shutdownNow();
+        housekeeper.shutdownNow();
+        creator.shutdownNow();
+        for (MockConnection conn : idle) {
+            totalCount.decrementAndGet();
+            conn.close();
+        }
+    }
+
+    // 넘겨주기 전에 커넥션 상태를 채움 (받은 쪽이 바로 쓸 수 있도록)
+    private void prepareBorrow(MockConnection conn) {
+        conn.borrowedAt = System.nanoTime();
+        conn.latencyMillis = simulatedLatencyMillis;
+        LeakDetector detector = leakDetector;
+        if (detector != null) {
+            detector.onBorrow(conn);
+        }
+    }
+
+    // 대여가 확정된 뒤에만 지표를 기록 (넘기다 실패한 경우 중복 집계 방지)
+    private void recordBorrow(MockConnection conn, long start) {
+        metrics.active.incrementAndGet();
+        metrics.borrowCount.increment();
+        metrics.borrowWait.record(conn.borrowedAt - start);
+    }
+
+    // 대기자가 있으면 먼저 온 순서대로 직접 넘겨주고, 없으면 유휴 큐로 돌려놓음
+    // 대기열 확인과 유휴 큐 반납을 한 락 안에서 해서, 대기 등록과 반납이 엇갈려 커넥션이 놀고 대기자는 타임아웃되는 일이 없게 함
+    private void handOff(MockConnection conn) {
+        synchronized (handOffLock) {
+            if (closed) {
+                totalCount.decrementAndGet();
+                conn.close();
+                return;
+            }
+            AsyncWaiter waiter;
+            while ((waiter = asyncWaiters.poll()) != null) {
+                if (waiter.future.isDone()) {
+                    continue; // 이미 타임아웃되었거나 취소된 대기자
+                }
+                prepareBorrow(conn);
+                if (waiter.future.complete(conn)) {
+                    recordBorrow(conn, waiter.start);
+                    System.out.println("[Pool] >>> " + conn + " 대기자에게 바로 전달됨 (대기자: " + asyncWaiters.size() + ")");
+                    return;
+                }
+                // 넘기는 사이 타임아웃/취소된 경우 대여 기록을 되돌림
+                conn.borrowedAt = 0;
+                LeakDetector detector = leakDetector;
+                if (detector != null) {
+                    detector.onRelease(conn);
+                }
+            }
+            pool.offerFirst(conn);
+        }
+    }
+
+    private void checkLeaks() {
+        LeakDetector detector = leakDetector;
+        if (detector != null) {
+            metrics.leakCount.add(detector.check());
+        }
+    }
+
+    // maxSize 안에서 슬롯을 확보한 경우에만 비동기로 커넥션 하나를 추가
+    private CompletableFuture<Void> addConnectionAsync() {
+        int current;
+        do {
+            current = totalCount.get();
+            if (current >= maxSize) {
+                return CompletableFuture.completedFuture(null);
+            }
+        } while (!totalCount.compareAndSet(current, current + 1));
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                MockConnection conn = new MockConnection(createCount.incrementAndGet(), statementCacheSize);
+                if (closed) {
+                    // 생성 도중 풀이 닫힘 (shutdownNow 의 인터럽트로 생성이 덜 끝났을 수 있음) - 풀에 넣지 않음
+                    totalCount.decrementAndGet();
+                    conn.close();
+                    return;
+                }
+                metrics.createdCount.increment();
+                handOff(conn);
+                System.out.println("[Pool] +++ " + conn + " 생성됨 (전체: " + totalCount.get() + ")");
+            } catch (RuntimeException e) {
+                totalCount.decrementAndGet();
+                System.out.println("[Pool] 커넥션 생성 실패: " + e.getMessage());
+            }
+        }, creator);
+    }
+
+    // idleTimeout 을 넘긴 커넥션은 minIdle 까지 줄이고, 모자라면 다시 채움
+    private void houseKeep() {
+        long now = System.nanoTime();
+        Iterator<MockConnection> it = pool.descendingIterator();
+        while (it.hasNext() && totalCount.get() > minIdle) {
+            MockConnection conn = it.next();
+            if (now - conn.lastReleasedAt < idleTimeoutNanos) {
+                break; // 뒤쪽이 가장 오래된 것이므로 더 볼 필요 없음
+            }
+            if (pool.removeLastOccurrence(conn)) {
+                totalCount.decrementAndGet();
+                metrics.retiredCount.increment();
+                System.out.println("[Pool] --- " + conn + " 유휴 시간 초과로 정리됨 (전체: " + totalCount.get() + ")");
+                conn.close();
+            }
+        }
+        for (int i = totalCount.get(); i < minIdle; i++) {
+            addConnectionAsync();
+        }
+    }
+
+    private static class AsyncWaiter {
+        final long start;
+        final CompletableFuture<MockConnection> future = new CompletableFuture<>();
+        AsyncWaiter(long start) {this.start = start;}
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
     }
 }
 
 // 비즈니스 로직에서 사용
 class DatabaseService {
-    private final TinyDataSource dataSource;
+    private final ConnectionSource dataSource;
+    // 결과 캐시 (null 이면 사용하지 않음)
+    private final QueryResultCache resultCache;
 
-    public DatabaseService(TinyDataSource dataSource) {
+    public DatabaseService(ConnectionSource dataSource) {
+        this(dataSource, null);
+    }
+
+    public DatabaseService(ConnectionSource dataSource, QueryResultCache resultCache) {
         this.dataSource = dataSource;
+        this.resultCache = resultCache;
+    }
+
+    // 조회 쿼리 실행 - 캐시에 있으면 커넥션을 빌리지 않고 바로 반환
+    public String query(String sql, Object... params) {
+        if (resultCache == null) {
+            return execute(sql, params);
+        }
+        Set<String> tables = QueryResultCache.tablesOf(sql);
+        // 현재 트랜잭션이 아직 커밋하지 않은 변경이 있는 테이블은 캐시를 우회 (자기 변경은 보여야 함)
+        TransactionContext tx = TransactionContext.current();
+        if (tx != null && !Collections.disjoint(tx.touchedTables, tables)) {
+            return execute(sql, params);
+        }
+
+        QueryResultCache.CacheKey key = new QueryResultCache.CacheKey(sql, params);
+        String cached = resultCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long[] snapshot = resultCache.snapshot(tables);
+        String result = execute(sql, params);
+        resultCache.put(key, tables, snapshot, result);
+        return result;
+    }
+
+    // 변경 쿼리 실행 - 관련 캐시는 커밋이 확정된 뒤에 무효화
+    public void update(String sql, Object... params) {
+        execute(sql, params);
+        if (resultCache == null) {
+            return;
+        }
+        Set<String> tables = QueryResultCache.tablesOf(sql);
+        TransactionContext tx = TransactionContext.current();
+        if (tx == null) {
+            resultCache.invalidate(tables); // 트랜잭션 밖 = 자동 커밋
+        } else if (tx.touchedTables.addAll(tables)) {
+            tx.afterCommit.add(() -> resultCache.invalidate(tables));
+        }
+    }
+
+    // 트랜잭션 안이면 트랜잭션에 묶인 커넥션을 그대로 사용
+    private String execute(String sql, Object[] params) {
+        MockConnection conn = null;
+        try {
+            conn = TransactionContext.getConnection(dataSource);
+            conn.excuteQuery(params.length == 0 ? sql : sql + " " + Arrays.toString(params));
+            return "[" + sql + "] " + Arrays.toString(params) + " result from " + conn;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            if (conn != null) {
+                TransactionContext.releaseConnection(dataSource, conn);
+            }
+        }
     }
 
     public void doWork(String taskName) {
@@ -87,22 +564,48 @@ class DatabaseService {
 
 public class TinyConnectionPool {
     public static void main(String[] args) throws InterruptedException {
-        TinyDataSource dataSource = new TinyDataSource(2);
+        // 최소 2개로 기동하고, 몰리면 4개까지 늘었다가 1초 동안 놀면 다시 2개로 줄어듦
+        TinyDataSource dataSource = new TinyDataSource(2, 4, 1000);
         DatabaseService service = new DatabaseService(dataSource);
 
         Runnable task = () -> service.doWork(Thread.currentThread().getName());
 
         System.out.println("\n--- 동시 요청 테스트 시작 ---");
-        Thread t1 = new Thread(task, "Task-A");
-        Thread t2 = new Thread(task, "Task-B");
-        Thread t3 = new Thread(task, "Task-C");
+        List<Thread> threads = new ArrayList<>();
+        for (String name : new String[]{"Task-A", "Task-B", "Task-C", "Task-D", "Task-E"}) {
+            Thread t = new Thread(task, name);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        System.out.println("\n--- 모든 작업 완료 (전체 커넥션: " + dataSource.getTotalCount() + ") ---");
+        System.out.println(dataSource.getMetrics().report());
+
+        System.out.println("\n--- 누수 감지 테스트 (반납하지 않는 커넥션) ---");
+        dataSource.setLeakDetectionThreshold(300);
+        MockConnection leaked = dataSource.getConnection();
+        Thread.sleep(500);
+        dataSource.releaseConnection(leaked);
 
-        t1.start();
-        t2.start();
-        t3.start();
+        System.out.println("\n--- 비동기 대여 테스트 (스레드를 잡지 않고 대기) ---");
+        List<CompletableFuture<Void>> asyncTasks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String taskName = "Async-" + i;
+            asyncTasks.add(dataSource.getConnectionAsync().thenAccept(conn -> {
+                conn.excuteQuery("SELETE * FROM " + taskName);
+                CompletableFuture.runAsync(() -> dataSource.releaseConnection(conn),
+                        CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+            }));
+        }
+        CompletableFuture.allOf(asyncTasks.toArray(new CompletableFuture[0])).join();
+        System.out.println("--- 비동기 요청 모두 커넥션 획득 (대기자: " + dataSource.getMetrics().getPending() + ") ---");
 
-        t1.join(); t2.join(); t3.join();
-        System.out.println("\n--- 모든 작업 완료 ---");
+        Thread.sleep(2500);
+        System.out.println("--- 유휴 정리 후 전체 커넥션: " + dataSource.getTotalCount() + " ---");
+        System.out.println(dataSource.getMetrics().report());
+        dataSource.close();
     }
 
 
@@ -0,0 +1,69 @@
+package com.naver.chapter10dbconnection;
+
+import java.lang.reflect.Proxy;
+
+interface ICountryService {
+    String findCountry(String code);
+    void renameCountry(String code, String name, boolean makeError);
+}
+
+class CountryService implements ICountryService {
+    private final DatabaseService databaseService;
+
+    public CountryService(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    @MyTransactional(readOnly = true)
+    public String findCountry(String code) {
+        return databaseService.query("SELECT name FROM country WHERE code = ?", code);
+    }
+
+    @Override
+    @MyTransactional
+    public void renameCountry(String code, String name, boolean makeError) {
+        databaseService.update("UPDATE country SET name = ? WHERE code = ?", name, code);
+        // 커밋 전에는 다른 스레드가 여전히 캐시된 값을 보고, 이 트랜잭션은 캐시를 우회
+        System.out.println("[Service] 트랜잭션 안에서 다시 조회: " + databaseService.query("SELECT name FROM country WHERE code = ?", code));
+        if (makeError) {
+            throw new RuntimeException("검증 실패");
+        }
+    }
+}
+
+public class TinyQueryCacheMain {
+    public static void main(String[] args) {
+        TinyDataSource dataSource = new TinyDataSource(2);
+        QueryResultCache cache = new QueryResultCache(1000);
+        ICountryService countryService = (ICountryService) Proxy.newProxyInstance(
+                ICountryService.class.getClassLoader(),
+                new Class[]{ICountryService.class},
+                new TransactionInvocationHandler(new CountryService(new DatabaseService(dataSource, cache)))
+        );
+
+        System.out.println("\n--- 시나리오 1: 참조 테이블 반복 조회 ---");
+        for (int i = 0; i < 5; i++) {
+            countryService.findCountry("KR");
+        }
+        System.out.println("[Result] 조회 5회, 커넥션 대여 " + dataSource.getMetrics().borrowCount.sum() + "회"
+                + " (cache hit=" + cache.getHits() + ", miss=" + cache.getMisses() + ")");
+
+        System.out.println("\n--- 시나리오 2: 변경 후 롤백 (캐시 유지 예상) ---");
+        try {
+            countryService.renameCountry("KR", "Korea", true);
+        } catch (RuntimeException e) {
+            System.out.println("Main 최종 예외 처리: " + e.getMessage());
+        }
+        System.out.println("[Result] 캐시 항목 수: " + cache.size());
+
+        System.out.println("\n--- 시나리오 3: 변경 후 커밋 (커밋 후 무효화 예상) ---");
+        countryService.renameCountry("KR", "Republic of Korea", false);
+        System.out.println("[Result] 캐시 항목 수: " + cache.size());
+        countryService.findCountry("KR");
+        System.out.println("[Result] 커넥션 대여 누적 " + dataSource.getMetrics().borrowCount.sum() + "회"
+                + " (cache hit=" + cache.getHits() + ", miss=" + cache.getMisses() + ")");
+
+        dataSource.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.naver.chapter10dbconnection;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// 비즈니스 서비스 (인터페이스 필수 - JDK Proxy)
+interface IReportService {
+    String dailyReport(String day);
+    void placeOrder(String item);
+}
+
+class ReportService implements IReportService {
+    private final DatabaseService databaseService;
+
+    public ReportService(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    @MyTransactional(readOnly = true)
+    public String dailyReport(String day) {
+        // 같은 트랜잭션 안의 두 쿼리는 같은 레플리카 커넥션에서 실행됨
+        databaseService.query("SELECT COUNT(*) FROM orders WHERE day = '" + day + "'");
+        return databaseService.query("SELECT SUM(amount) FROM orders WHERE day = '" + day + "'");
+    }
+
+    @Override
+    @MyTransactional
+    public void placeOrder(String item) {
+        databaseService.update("INSERT INTO orders VALUES ('" + item + "')");
+    }
+}
+
+public class TinyRoutingMain {
+    public static void main(String[] args) throws InterruptedException {
+        TinyDataSource primary = new TinyDataSource(2);
+        List<TinyDataSource> replicas = new ArrayList<>();
+        // 지연 시간이 서로 다른 레플리카 3대
+        long[] latencies = {20, 80, 200};
+        for (long latency : latencies) {
+            TinyDataSource replica = new TinyDataSource(1, 8, 30_000);
+            replica.setSimulatedLatency(latency);
+            replicas.add(replica);
+        }
+
+        for (RoutingDataSource.Strategy strategy : RoutingDataSource.Strategy.values()) {
+            RoutingDataSource routing = new RoutingDataSource(primary, replicas, strategy);
+            IReportService reportService = (IReportService) Proxy.newProxyInstance(
+                    IReportService.class.getClassLoader(),
+                    new Class[]{IReportService.class},
+                    new TransactionInvocationHandler(new ReportService(new DatabaseService(routing)))
+            );
+
+            System.out.println("\n--- 라우팅 전략: " + strategy + " ---");
+            reportService.placeOrder("노트북");
+
+            ExecutorService clients = Executors.newFixedThreadPool(8);
+            long start = System.nanoTime();
+            for (int i = 0; i < 40; i++) {
+                clients.execute(() -> reportService.dailyReport("2026-10-19"));
+            }
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.println("[Result] " + strategy + " 읽기 40건 처리 시간: " + elapsed + "ms");
+            System.out.println("  primary: " + routing.getRoutedCount(0) + "건");
+            for (int r = 0; r < replicas.size(); r++) {
+                System.out.println("  replica-" + (r + 1) + " (지연 " + latencies[r] + "ms): " + routing.getRoutedCount(r + 1) + "건");
+            }
+        }
+
+        primary.close();
+        replicas.forEach(TinyDataSource::close);
+    }
+}
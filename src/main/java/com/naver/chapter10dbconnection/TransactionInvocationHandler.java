@@ -0,0 +1,132 @@
+package com.naver.chapter10dbconnection;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@interface MyTransactional {
+    // true 이면 읽기 전용 트랜잭션 (라우팅 데이터소스가 레플리카로 보냄)
+    boolean readOnly() default false;
+}
+
+// 현재 스레드에서 진행 중인 트랜잭션 정보 (첫 쿼리에서 빌린 커넥션 하나에 끝까지 고정됨)
+class TransactionContext {
+    private static final ThreadLocal<TransactionContext> CURRENT = new ThreadLocal<>();
+
+    final boolean readOnly;
+    ConnectionSource source;
+    MockConnection connection;
+    // 이 트랜잭션이 변경한 테이블 (커밋 전까지는 결과 캐시를 우회)
+    final Set<String> touchedTables = new HashSet<>();
+    // 커밋이 끝난 뒤에만 실행할 작업 (롤백되면 버려짐)
+    final List<Runnable> afterCommit = new ArrayList<>();
+
+    private TransactionContext(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    static TransactionContext current() {
+        return CURRENT.get();
+    }
+
+    static TransactionContext begin(boolean readOnly) {
+        TransactionContext tx = new TransactionContext(readOnly);
+        CURRENT.set(tx);
+        return tx;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // 트랜잭션 안이면 트랜잭션에 묶인 커넥션을, 밖이면 풀에서 바로 빌림
+    static MockConnection getConnection(ConnectionSource source) throws InterruptedException {
+        TransactionContext tx = CURRENT.get();
+        if (tx == null) {
+            return source.getConnection();
+        }
+        if (tx.connection == null) {
+            // 실제로 DB 에 갈 일이 생겼을 때 처음 빌림 (캐시로 끝나는 트랜잭션은 커넥션을 잡지 않음)
+            tx.connection = source.getConnection();
+            tx.source = source;
+            System.out.println("[Tx] 커넥션 획득 (" + (tx.readOnly ? "readOnly" : "read-write") + ") -> " + tx.connection);
+        }
+        return tx.connection;
+    }
+
+    static void releaseConnection(ConnectionSource source, MockConnection conn) {
+        TransactionContext tx = CURRENT.get();
+        if (tx != null && tx.connection == conn) {
+            return; // 트랜잭션이 끝날 때 반납
+        }
+        source.releaseConnection(conn);
+    }
+}
+
+// AOP 트랜잭션 핸들러 - 트랜잭션 동안 커넥션 하나를 붙잡아 두고 커밋/롤백 후 반납
+class TransactionInvocationHandler implements InvocationHandler {
+    private final Object target;
+
+    public TransactionInvocationHandler(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        // 실제 클래스의 메서드에서 @MyTransactional 확인
+        Method targetMethod = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+        MyTransactional transactional = targetMethod.getAnnotation(MyTransactional.class);
+
+        // 어노테이션이 없거나 이미 바깥 트랜잭션이 있으면 그대로 실행 (바깥 트랜잭션에 참여)
+        if (transactional == null || TransactionContext.current() != null) {
+            return invokeTarget(method, args);
+        }
+
+        // 1. Before: 트랜잭션 시작 - readOnly 여부가 정해진 뒤에 커넥션을 빌려야 라우팅이 가능
+        TransactionContext tx = TransactionContext.begin(transactional.readOnly());
+        boolean committed = false;
+        try {
+            // 2. Target: 실제 비즈니스 로직 실행
+            Object result = invokeTarget(method, args);
+
+            // 3. After Returning: 성공 및 커밋
+            if (tx.connection != null) {
+                tx.connection.commit();
+            }
+            committed = true;
+            return result;
+        } catch (Throwable e) {
+            if (tx.connection != null) {
+                tx.connection.rollback();
+            }
+            throw e;
+        } finally {
+            TransactionContext.end();
+            if (tx.connection != null) {
+                tx.source.releaseConnection(tx.connection);
+            }
+            if (committed) {
+                // 4. After Commit: 커밋이 확정된 뒤에만 후속 작업 실행 (예: 결과 캐시 무효화)
+                tx.afterCommit.forEach(Runnable::run);
+            }
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
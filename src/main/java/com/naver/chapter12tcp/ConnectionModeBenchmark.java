@@ -0,0 +1,86 @@
+package com.naver.chapter12tcp;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 클라이언트 수천 개가 동시에 붙어 메시지를 띄엄띄엄 보낼 때 연결 처리 방식별 소요 시간/지연 비교 (로컬 측정용)
+// 인자: [클라이언트 수] [클라이언트당 메시지 수] [메시지 간격 ms] [모드 목록, 예: THREAD_POOL,VIRTUAL_THREAD,NIO]
+// 클라이언트와 서버가 한 프로세스라 최대 스레드 수에는 클라이언트 스레드도 포함됨 (JDK 21 미만이면 가상 스레드도 플랫폼 스레드로 대체)
+public class ConnectionModeBenchmark {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int thinkMillis = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        String[] modes = (args.length > 3 ? args[3] : "THREAD_POOL,VIRTUAL_THREAD,NIO").split(",");
+        System.out.println("--- 가상 스레드 지원: " + VirtualThreads.isSupported() + ", 클라이언트 " + clients
+                + " x 메시지 " + messages + " (간격 " + thinkMillis + "ms) ---");
+
+        int port = 18900;
+        for (String name : modes) {
+            TinyTcpServer.ServerMode mode = TinyTcpServer.ServerMode.valueOf(name.trim());
+            TinyTcpServer server = new TinyTcpServer(new ChatService(), port);
+            server.configureMode(mode);
+            server.configureConnections(clients, 30_000);
+            server.configureLogging(false);
+            server.start();
+            Thread.sleep(200);
+            run(mode.name(), port, clients, messages, thinkMillis);
+            server.stop();
+            port++;
+        }
+    }
+
+    private static void run(String label, int port, int clients, int messages, int thinkMillis) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long[] latencies = new long[clients * messages];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("tcp-client");
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            executor.execute(() -> {
+                try (Socket socket = new Socket("localhost", port);
+                     PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+                    for (int m = 0; m < messages; m++) {
+                        long sent = System.nanoTime();
+                        out.println("client-" + id + " message-" + m);
+                        if (in.readLine() == null) throw new IllegalStateException("연결 끊김");
+                        latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+                        Thread.sleep(thinkMillis);
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executor.shutdown();
+
+        long[] sorted = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sorted);
+        System.out.println("[Result] " + label + ": " + elapsed + "ms, 실패 " + failed.get()
+                + ", 응답 p50 " + percentile(sorted, 0.50) + "ms / p99 " + percentile(sorted, 0.99)
+                + "ms, 최대 스레드 " + threads.getPeakThreadCount());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return -1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))]);
+    }
+}
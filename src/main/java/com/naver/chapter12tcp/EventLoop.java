@@ -0,0 +1,282 @@
+package com.naver.chapter12tcp;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 셀렉터 하나를 스레드 하나가 돌리는 이벤트 루프 (논블로킹 소켓 채널)
+//  - 연결마다 스레드를 두지 않으므로 대기 중인 연결 수만 메가바이트 단위 메모리로 수만 개 유지 가능
+//  - 읽기는 루프가 공유하는 버퍼 하나로 받고, 줄이 덜 온 경우에만 연결별 읽기 버퍼를, 다 못 보낸 응답이 있을 때만 연결별 쓰기 버퍼를 둠
+//  - 한 줄(\n)이 모이면 루프 스레드에서 바로 ChatService.processMessage 호출 (서비스가 블로킹하면 루프 전체가 멈추므로 주의)
+//  - 보낼 응답이 밀려 있으면 그 연결의 읽기를 멈춤 (느린 클라이언트가 메모리를 쌓지 않게)
+//  - 연결은 등록된 루프에서만 다뤄지므로 연결 상태에 락이 필요 없음 (다른 스레드는 register 로 넘기기만 함)
+final class EventLoop implements Runnable {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE = 8 * 1024;
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final byte[] LINE_END = System.lineSeparator().getBytes(CHARSET);
+
+    private final String name;
+    private final ChatService chatService;
+    private final boolean verbose;
+    private final Selector selector;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final Queue<SocketChannel> registrations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // accept 한 연결을 넘길 워커 루프 (null 이면 자기가 처리)
+    private EventLoop[] workers;
+    private int nextWorker;
+    private volatile boolean running = true;
+    private Thread thread;
+
+    EventLoop(String name, ChatService chatService, boolean verbose) throws IOException {
+        this.name = name;
+        this.chatService = chatService;
+        this.verbose = verbose;
+        this.selector = Selector.open();
+    }
+
+    // 이 루프가 직접 accept 할 리스너 (단일 리액터, 또는 SO_REUSEPORT 로 루프마다 리스너) - 시작 전에 호출
+    void listen(ServerSocketChannel server) throws IOException {
+        listen(server, null);
+    }
+
+    // 보스 루프 - accept 만 하고 연결은 워커 루프들에 돌아가며 넘김
+    void listen(ServerSocketChannel server, EventLoop[] workers) throws IOException {
+        this.workers = workers;
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    void start() {
+        thread = new Thread(this, name);
+        thread.start();
+    }
+
+    // 다른 스레드가 받은 연결을 넘길 때 - 등록은 루프 스레드에서 함
+    void register(SocketChannel channel) {
+        registrations.add(channel);
+        selector.wakeup();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    void close() {
+        running = false;
+        selector.wakeup();
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                registerPending();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) accept((ServerSocketChannel) key.channel());
+                        else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isWritable()) flush(connection);
+                            if (key.isValid() && key.isReadable()) read(connection);
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() != null) close((Connection) key.attachment());
+                    } catch (RuntimeException e) {
+                        // 서비스 예외 하나로 루프(와 이 루프의 모든 연결)가 죽지 않도록 그 연결만 닫음
+                        System.out.println("[Server Error] " + name + " 처리 중 예외: " + e);
+                        if (key.attachment() != null) close((Connection) key.attachment());
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.out.println("[Server Error]" + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel;
+        // 한 번 깨어났을 때 밀린 연결을 모두 받음
+        while ((channel = server.accept()) != null) {
+            if (verbose) System.out.println("[Server] 클라이언트 연결됨: " + channel.socket().getInetAddress());
+            if (workers == null) add(channel);
+            else workers[Math.floorMod(nextWorker++, workers.length)].register(channel);
+        }
+    }
+
+    private void registerPending() {
+        SocketChannel channel;
+        while ((channel = registrations.poll()) != null) {
+            try {
+                add(channel);
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void add(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+        connections.incrementAndGet();
+    }
+
+    private void read(Connection connection) throws IOException {
+        readBuffer.clear();
+        int n = connection.channel.read(readBuffer);
+        if (n < 0) {
+            close(connection);
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            int end = indexOf(readBuffer, (byte) '\n');
+            if (end < 0) {
+                // 줄이 덜 옴 - 남은 바이트만 연결별 버퍼에 보관
+                connection.partial = append(connection.partial, readBuffer, readBuffer.remaining());
+                if (connection.partial.position() > MAX_LINE) {
+                    System.out.println("[Server Error] 한 줄이 너무 깁니다.");
+                    close(connection);
+                }
+                return;
+            }
+            String line;
+            int length = end - readBuffer.position();
+            if (connection.partial == null) {
+                line = decode(readBuffer, length);
+            } else {
+                connection.partial = append(connection.partial, readBuffer, length);
+                connection.partial.flip();
+                line = decode(connection.partial, connection.partial.remaining());
+                connection.partial = null;
+            }
+            readBuffer.position(end + 1);
+            if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+            if (verbose) System.out.println("[Server Received]" + line);
+
+            // 비즈니스 로직(Service) 호출 후 응답 전송
+            write(connection, chatService.processMessage(line));
+            if (!connection.key.isValid()) return;
+        }
+    }
+
+    private void write(Connection connection, String response) throws IOException {
+        byte[] body = response.getBytes(CHARSET);
+        ByteBuffer out = ByteBuffer.allocate(body.length + LINE_END.length).put(body).put(LINE_END);
+        out.flip();
+        if (connection.pending == null) {
+            connection.channel.write(out);
+            if (!out.hasRemaining()) return;
+            connection.pending = ByteBuffer.allocate(Math.max(out.remaining(), 4096));
+        } else if (connection.pending.remaining() < out.remaining()) {
+            connection.pending = grow(connection.pending, out.remaining());
+        }
+        connection.pending.put(out);
+        // 다 보낼 때까지 읽기를 멈추고 쓰기 가능 이벤트를 기다림
+        connection.key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer pending = connection.pending;
+        pending.flip();
+        connection.channel.write(pending);
+        if (pending.hasRemaining()) {
+            pending.compact();
+            return;
+        }
+        connection.pending = null;
+        connection.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void close(Connection connection) {
+        if (!connection.channel.isOpen()) return;
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+        }
+        connections.decrementAndGet();
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte b) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) == b) return i;
+        }
+        return -1;
+    }
+
+    private static String decode(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    private static ByteBuffer append(ByteBuffer target, ByteBuffer source, int length) {
+        if (target == null) target = ByteBuffer.allocate(Math.max(256, length));
+        else if (target.remaining() < length) target = grow(target, length);
+        ByteBuffer slice = source.slice();
+        slice.limit(length);
+        target.put(slice);
+        source.position(source.position() + length);
+        return target;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int extra) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        // 덜 받은 줄 (쓰기 모드, 없으면 null)
+        ByteBuffer partial;
+        // 다 못 보낸 응답 (쓰기 모드, 없으면 null)
+        ByteBuffer pending;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+}
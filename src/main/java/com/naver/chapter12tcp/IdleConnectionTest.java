@@ -0,0 +1,54 @@
+package com.naver.chapter12tcp;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+// 연결만 맺고 아무것도 보내지 않는 클라이언트를 잔뜩 붙여 둔 뒤, 새 클라이언트 하나의 응답 시간 확인 (로컬 측정용)
+// 인자: [THREAD_POOL|NIO] [대기 연결 수] - 연결 하나에 fd 가 양쪽으로 두 개 필요 (ulimit -n 확인)
+public class IdleConnectionTest {
+    public static void main(String[] args) throws Exception {
+        TinyTcpServer.ServerMode mode = args.length > 0 ? TinyTcpServer.ServerMode.valueOf(args[0]) : TinyTcpServer.ServerMode.NIO;
+        int idle = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int port = 18888;
+        TinyTcpServer server = new TinyTcpServer(new ChatService(), port);
+        server.configureMode(mode);
+        server.configureLogging(false);
+        server.start();
+        Thread.sleep(300);
+
+        List<Socket> idleClients = new ArrayList<>(idle);
+        long start = System.nanoTime();
+        for (int i = 0; i < idle; i++) {
+            idleClients.add(new Socket("localhost", port));
+        }
+        System.out.println("[Result] " + mode + ": 대기 연결 " + idle + "개 (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.println("[Result] 힙 사용 " + (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024) + "MB, 스레드 "
+                + Thread.activeCount());
+
+        try (Socket socket = new Socket("localhost", port);
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+            socket.setSoTimeout(3000);
+            long sent = System.nanoTime();
+            out.println("Hello after " + idle + " idle clients");
+            String reply;
+            try {
+                reply = in.readLine();
+            } catch (SocketTimeoutException e) {
+                reply = null;
+            }
+            System.out.println("[Result] 새 클라이언트 응답: " + (reply == null ? "3초 내 응답 없음" : reply.length() + "자, "
+                    + (System.nanoTime() - sent) / 1_000 + "us"));
+        }
+
+        for (Socket socket : idleClients) socket.close();
+        server.stop();
+    }
+}
@@ -0,0 +1,85 @@
+package com.naver.chapter12tcp;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 이벤트 루프 수에 따른 NIO 서버 처리량 비교 (로컬 측정용)
+// 클라이언트마다 메시지 여러 줄을 한 번에 보내고 응답을 모두 받는 것을 반복
+// 인자: [클라이언트 수] [측정 초] [루프 수 목록, 예: 1,2,4] [reuseport(true|false)] [한 번에 보낼 줄 수]
+// 클라이언트도 같은 프로세스에서 돌기 때문에 코어가 서버+클라이언트에 나뉨 - 코어가 1개면 루프를 늘려도 빨라지지 않음
+public class TcpThroughputBenchmark {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String[] loopCounts = (args.length > 2 ? args[2] : "1,2,4").split(",");
+        boolean reusePort = args.length > 3 && Boolean.parseBoolean(args[3]);
+        int pipeline = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        System.out.println("--- 코어 " + Runtime.getRuntime().availableProcessors() + "개, 클라이언트 " + clients
+                + ", 파이프라인 " + pipeline + " ---");
+
+        int port = 18890;
+        // 처음 측정하는 구성만 JIT 컴파일 전이라 불리하지 않도록 한 번 돌리고 버림
+        TinyTcpServer warmup = new TinyTcpServer(new ChatService(), port++);
+        warmup.configureMode(TinyTcpServer.ServerMode.NIO);
+        warmup.configureEventLoops(1, false);
+        warmup.configureLogging(false);
+        warmup.start();
+        run(port - 1, clients, 2, pipeline);
+        warmup.stop();
+
+        for (String loopCount : loopCounts) {
+            int loops = Integer.parseInt(loopCount.trim());
+            TinyTcpServer server = new TinyTcpServer(new ChatService(), port);
+            server.configureMode(TinyTcpServer.ServerMode.NIO);
+            server.configureEventLoops(loops, reusePort);
+            server.configureLogging(false);
+            server.start();
+            long ops = run(port, clients, seconds, pipeline);
+            System.out.println("[Result] 이벤트 루프 " + loops + (reusePort ? " (SO_REUSEPORT)" : "") + ": " + ops / seconds + " msg/s");
+            server.stop();
+            port++;
+        }
+    }
+
+    private static long run(int port, int clients, int seconds, int pipeline) throws InterruptedException {
+        LongAdder replies = new LongAdder();
+        long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        long deadline = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            threads[c] = new Thread(() -> {
+                StringBuilder batch = new StringBuilder();
+                for (int i = 0; i < pipeline; i++) batch.append("client-").append(id).append(" message-").append(i).append('\n');
+                byte[] request = batch.toString().getBytes(Charset.defaultCharset());
+                try (Socket socket = new Socket("localhost", port)) {
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                    long n = 0;
+                    while (true) {
+                        long now = System.nanoTime();
+                        if (now > deadline) break;
+                        out.write(request);
+                        out.flush();
+                        for (int i = 0; i < pipeline; i++) {
+                            if (in.readLine() == null) throw new IllegalStateException("연결 끊김");
+                        }
+                        if (now > warmupEnd) n += pipeline;
+                    }
+                    replies.add(n);
+                } catch (Exception e) {
+                    System.out.println("[Client Error] " + e.getMessage());
+                }
+            });
+            threads[c].start();
+        }
+        for (Thread thread : threads) thread.join();
+        return replies.sum();
+    }
+}
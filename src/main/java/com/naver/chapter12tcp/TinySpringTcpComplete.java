@@ -1,17 +1,29 @@
 package com.naver.chapter12tcp;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 @Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE) @interface MyComponent {}
 @Retention(RetentionPolicy.RUNTIME) @Target({ElementType.FIELD, ElementType.CONSTRUCTOR}) @interface MyAutowired {}
@@ -27,40 +39,211 @@ class ChatService {
 // TCP 서버 빈 (IoC에 의해 관리됨)
 @MyComponent
 class TinyTcpServer {
+    // THREAD_POOL: 연결마다 풀 스레드 하나가 readLine 으로 대기 (동시 연결 10개까지, 11번째는 누가 끊을 때까지 대기)
+    // NIO: 셀렉터 이벤트 루프들이 모든 연결을 논블로킹으로 처리 (대기 중인 연결 수만 개 가능)
+    //      루프가 여럿이면 보스 루프가 accept 해서 워커 루프에 나눠 주고, 연결은 끝까지 그 워커에 고정
+    //      SO_REUSEPORT 를 켜면 워커마다 같은 포트에 리스너를 열고 커널이 연결을 나눔 (보스 없음)
+    // VIRTUAL_THREAD: 연결마다 가상 스레드 하나 - handleClient 의 블로킹 코드를 그대로 쓰면서 동시 연결은 maxConnections 까지
+    //      (JDK 21 미만이면 maxConnections 크기의 플랫폼 스레드 풀로 대체 - 이때 기본 상한은 FALLBACK_MAX_CONNECTIONS)
+    enum ServerMode { THREAD_POOL, NIO, VIRTUAL_THREAD }
+
+    static final int DEFAULT_PORT = 8888;
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_MAX_CONNECTIONS = 10_000;
+    // 가상 스레드가 없을 때 기본 동시 연결 상한 (연결마다 플랫폼 스레드 하나를 쓰므로 훨씬 작게)
+    private static final int FALLBACK_MAX_CONNECTIONS = 256;
+
     private final ChatService chatService;
-    private final int PORT = 8888;
+    private final int PORT;
     private final ExecutorService threadPool = Executors.newFixedThreadPool(10);
+    private ServerMode mode = ServerMode.THREAD_POOL;
+    private boolean verbose = true;
+    private volatile ServerSocket serverSocket;
+    private int eventLoops = Runtime.getRuntime().availableProcessors();
+    private boolean reusePort;
+    private final List<ServerSocketChannel> serverChannels = new ArrayList<>();
+    private final List<EventLoop> loops = new ArrayList<>();
+    // 0 이면 기본값 (가상 스레드 지원 여부에 따라 start 에서 정함)
+    private int maxConnections;
+    private int idleTimeoutMillis;
+    private Semaphore connectionPermits;
+    private ExecutorService connectionExecutor;
+    // 처리 중인 블로킹 모드 연결 - stop 에서 닫아 readLine 에 묶인 스레드를 깨움 (shutdownNow 의 인터럽트로는 안 깨어남)
+    private final Set<Socket> clientSockets = ConcurrentHashMap.newKeySet();
 
     @MyAutowired
     public TinyTcpServer(ChatService chatService) {
+        this(chatService, DEFAULT_PORT);
+    }
+
+    public TinyTcpServer(ChatService chatService, int port) {
         this.chatService = chatService;
+        this.PORT = port;
+    }
+
+    // start 전에 호출
+    public void configureMode(ServerMode mode) {
+        this.mode = mode;
+    }
+
+    // NIO 워커 루프 수 (기본: 코어 수), reusePort 면 루프마다 리스너를 따로 염
+    public void configureEventLoops(int eventLoops, boolean reusePort) {
+        if (eventLoops < 1) throw new IllegalArgumentException("이벤트 루프는 1개 이상이어야 합니다.");
+        this.eventLoops = eventLoops;
+        this.reusePort = reusePort;
+    }
+
+    // VIRTUAL_THREAD 동시 연결 상한 (넘으면 자리가 날 때까지 accept 를 미뤄 커널 backlog 에서 대기)
+    // idleTimeoutMillis: 이 시간 동안 한 줄도 오지 않으면 연결을 끊음 (0 이면 무제한, 블로킹 모드 공통)
+    public void configureConnections(int maxConnections, int idleTimeoutMillis) {
+        if (maxConnections < 1) throw new IllegalArgumentException("최대 연결 수는 1 이상이어야 합니다.");
+        this.maxConnections = maxConnections;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    // 연결/메시지마다 찍는 로그 (부하 측정 시 끔)
+    public void configureLogging(boolean verbose) {
+        this.verbose = verbose;
     }
 
     public void start() {
+        if (mode == ServerMode.NIO) {
+            startEventLoop();
+            return;
+        }
+        if (mode == ServerMode.VIRTUAL_THREAD) {
+            if (maxConnections == 0) {
+                maxConnections = VirtualThreads.isSupported() ? DEFAULT_MAX_CONNECTIONS : FALLBACK_MAX_CONNECTIONS;
+            }
+            connectionPermits = new Semaphore(maxConnections);
+            connectionExecutor = VirtualThreads.newPerTaskExecutor("tcp-connection", maxConnections);
+        }
         new Thread(() -> {
-            try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-                System.out.println("--- Tiny TCP Server 시작 ( Port: " + PORT + ")");
+            try (ServerSocket serverSocket = new ServerSocket(PORT, BACKLOG)) {
+                this.serverSocket = serverSocket;
+                System.out.println("--- Tiny TCP Server 시작 ( Port: " + PORT + (mode == ServerMode.VIRTUAL_THREAD
+                        ? ", 가상 스레드, 최대 연결 " + maxConnections : "") + ")");
                 while (true) {
-                    Socket clientSocket = serverSocket.accept();
-                    System.out.println("[Server] 클라이언트 연결됨: " + clientSocket.getInetAddress());
+                    if (connectionPermits != null) connectionPermits.acquire();
+                    Socket clientSocket;
+                    try {
+                        clientSocket = serverSocket.accept();
+                    } catch (IOException e) {
+                        if (connectionPermits != null) connectionPermits.release();
+                        throw e;
+                    }
+                    if (verbose) System.out.println("[Server] 클라이언트 연결됨: " + clientSocket.getInetAddress());
+                    clientSockets.add(clientSocket);
 
-                    // 클라이언트 처리를 스레드풀에 위임 (비동기 처리)
-                    threadPool.execute(() -> handleClient(clientSocket));
+                    try {
+                        if (connectionExecutor != null) {
+                            // 연결마다 가상 스레드 (블로킹 readLine 동안 캐리어 스레드를 놓아 줌)
+                            connectionExecutor.execute(() -> {
+                                try {
+                                    handleClient(clientSocket);
+                                } finally {
+                                    connectionPermits.release();
+                                }
+                            });
+                        } else {
+                            // 클라이언트 처리를 스레드풀에 위임 (비동기 처리)
+                            threadPool.execute(() -> handleClient(clientSocket));
+                        }
+                    } catch (RejectedExecutionException e) {
+                        // stop 과 accept 가 겹침 - 허가를 돌려주고 연결을 닫음
+                        if (connectionPermits != null) connectionPermits.release();
+                        closeClient(clientSocket);
+                    }
                 }
             } catch (Exception e) {
-                e.printStackTrace();
+                if (serverSocket == null || !serverSocket.isClosed()) e.printStackTrace();
             }
         }).start();
     }
 
+    private void startEventLoop() {
+        try {
+            EventLoop[] workers = new EventLoop[eventLoops];
+            for (int i = 0; i < eventLoops; i++) {
+                workers[i] = new EventLoop("tcp-worker-" + i, chatService, verbose);
+                loops.add(workers[i]);
+            }
+            String layout;
+            boolean listenerPerLoop = reusePort && supportsReusePort();
+            if (reusePort && !listenerPerLoop) System.out.println("[Server] SO_REUSEPORT 미지원 - 리스너 하나로 시작합니다.");
+            if (listenerPerLoop) {
+                for (EventLoop worker : workers) {
+                    worker.listen(bind(true));
+                }
+                layout = "워커 " + eventLoops + " (SO_REUSEPORT)";
+            } else if (eventLoops == 1) {
+                // 루프가 하나면 보스를 따로 두지 않음
+                workers[0].listen(bind(false));
+                layout = "단일 루프";
+            } else {
+                EventLoop boss = new EventLoop("tcp-boss", chatService, verbose);
+                boss.listen(bind(false), workers);
+                loops.add(boss);
+                layout = "보스 1 + 워커 " + eventLoops;
+            }
+            for (EventLoop loop : loops) loop.start();
+            System.out.println("--- Tiny TCP Server 시작 ( Port: " + PORT + ", NIO " + layout + " )");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean supportsReusePort() throws IOException {
+        try (ServerSocketChannel channel = ServerSocketChannel.open()) {
+            return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        }
+    }
+
+    private ServerSocketChannel bind(boolean reusePort) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        serverChannels.add(channel);
+        if (reusePort) channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        channel.bind(new InetSocketAddress(PORT), BACKLOG);
+        return channel;
+    }
+
+    // 현재 연결 수 (NIO, VIRTUAL_THREAD 모드)
+    public int connections() {
+        if (connectionPermits != null) return maxConnections - connectionPermits.availablePermits();
+        int connections = 0;
+        for (EventLoop loop : loops) connections += loop.connections();
+        return connections;
+    }
+
+    public void stop() {
+        try {
+            if (serverSocket != null) serverSocket.close();
+            for (ServerSocketChannel channel : serverChannels) channel.close();
+        } catch (IOException ignored) {
+        }
+        for (EventLoop loop : loops) loop.close();
+        threadPool.shutdownNow();
+        if (connectionExecutor != null) connectionExecutor.shutdownNow();
+        for (Socket socket : clientSockets) closeClient(socket);
+    }
+
+    private void closeClient(Socket socket) {
+        clientSockets.remove(socket);
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
     private void handleClient(Socket socket) {
         try (
                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
         ) {
+            if (idleTimeoutMillis > 0) socket.setSoTimeout(idleTimeoutMillis);
             String inputLine;
             while ((inputLine = in.readLine()) != null) {
-                System.out.println("[Server Received]" + inputLine);
+                if (verbose) System.out.println("[Server Received]" + inputLine);
 
                 // 비즈니스 로직(Service) 호출
                 String response = chatService.processMessage(inputLine);
@@ -69,14 +252,13 @@ class TinyTcpServer {
                 out.println(response);
             }
 
+        } catch (SocketTimeoutException e) {
+            if (verbose) System.out.println("[Server] 유휴 시간 초과로 연결 종료: " + socket.getInetAddress());
         }catch (Exception e) {
-            System.out.println("[Server Error]" + e.getMessage());
+            // stop 이 닫은 소켓이면 조용히 종료
+            if (!socket.isClosed()) System.out.println("[Server Error]" + e.getMessage());
         } finally {
-            try {
-                socket.close();
-            } catch (Exception e) {
-
-            }
+            closeClient(socket);
         }
     }
 }
@@ -88,6 +270,8 @@ public class TinySpringTcpComplete {
         // 컨테이너 초기화 및 빈 등록 ( 수동 등록 시뮬레이션 )
         ChatService chatService = new ChatService();
         TinyTcpServer server = new TinyTcpServer(chatService);
+        // 인자: [THREAD_POOL|NIO|VIRTUAL_THREAD]
+        if (args.length > 0) server.configureMode(TinyTcpServer.ServerMode.valueOf(args[0]));
 
         // TCP 구동
         server.start();
@@ -0,0 +1,94 @@
+package com.naver.chapter7mvc;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// 라우트별 부하 차단 우선순위
+enum RequestPriority {
+    // 헬스 체크 등 - 절대 차단하지 않고 동시 실행 제한도 받지 않음
+    CRITICAL,
+    NORMAL,
+    // 과부하 상태면 대기 없이 바로 차단
+    LOW
+}
+
+// CoDel 방식 입장 제어 - 요청이 도착해서 실행을 시작하기까지 기다린 시간(큐 지연)을 기준으로 차단
+//  - interval 동안 관측한 큐 지연의 최솟값이 target 을 넘으면 "계속 쌓여 있는 큐" 로 보고 과부하 상태로 전환
+//  - 과부하 상태에서는 target 이상 기다린 요청을 503 으로 돌려보내 큐를 비움 (평상시 최대 대기는 interval)
+//  - 한 구간 동안 차단할 요청이 하나도 없었으면 (수요가 처리량 아래로 내려가면) 정상 상태로 복귀
+// 순간적인 폭주(최솟값은 낮음)는 흡수하고, 처리량을 넘는 지속 부하만 잘라내므로 p99 가 묶임
+class AdmissionController {
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private final AtomicLong windowMin = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong windowShed = new AtomicLong();
+    private volatile long windowEnd;
+    private volatile boolean overloaded;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    AdmissionController(long targetMillis, long intervalMillis) {
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.windowEnd = System.nanoTime() + intervalNanos;
+    }
+
+    // 동시 실행 허가를 기다림 - 우선순위와 현재 상태가 허용하는 만큼만 기다리고, 못 얻으면 false (차단)
+    boolean acquire(Semaphore limit, long receivedAt, RequestPriority priority) throws InterruptedException {
+        long budget = maxQueueDelay(priority) - (System.nanoTime() - receivedAt);
+        boolean acquired = budget > 0 ? limit.tryAcquire(budget, TimeUnit.NANOSECONDS) : limit.tryAcquire();
+        record(System.nanoTime() - receivedAt, acquired);
+        return acquired;
+    }
+
+    // 대기열 없이 바로 실행하는 경우 (caller-runs) - 이미 기다린 시간만으로 판단
+    boolean admit(long receivedAt, RequestPriority priority) {
+        long waited = System.nanoTime() - receivedAt;
+        boolean ok = priority == RequestPriority.CRITICAL || waited <= maxQueueDelay(priority);
+        record(waited, ok);
+        return ok;
+    }
+
+    public boolean isOverloaded() { return overloaded; }
+
+    public long getAdmittedCount() { return admitted.sum(); }
+
+    public long getShedCount() { return shed.sum(); }
+
+    private long maxQueueDelay(RequestPriority priority) {
+        if (!overloaded) return intervalNanos;
+        return priority == RequestPriority.LOW ? 0 : targetNanos;
+    }
+
+    // 차단된 요청의 지연도 함께 기록 (큐가 실제로 빠지기 전까지 최솟값이 내려가지 않도록)
+    private void record(long sojourn, boolean ok) {
+        if (ok) {
+            admitted.increment();
+        } else {
+            shed.increment();
+            windowShed.incrementAndGet();
+        }
+        windowMin.accumulateAndGet(sojourn, Math::min);
+        long now = System.nanoTime();
+        if (now - windowEnd >= 0) {
+            rollWindow(now);
+        }
+    }
+
+    private synchronized void rollWindow(long now) {
+        if (now - windowEnd < 0) return;
+        long min = windowMin.getAndSet(Long.MAX_VALUE);
+        long shedInWindow = windowShed.getAndSet(0);
+        boolean wasOverloaded = overloaded;
+        // 과부하 중에는 허용 대기가 target 이라 최솟값이 target 아래로 내려가므로, 차단이 멈췄는지로 복귀를 판단
+        overloaded = wasOverloaded ? shedInWindow > 0 : min != Long.MAX_VALUE && min > targetNanos;
+        windowEnd = now + intervalNanos;
+        if (overloaded != wasOverloaded) {
+            System.out.println("[Admission] " + (overloaded ? "과부하 - 큐 지연 최솟값 " + TimeUnit.NANOSECONDS.toMillis(min) + "ms, 차단 시작" : "정상 - 차단 해제"));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.naver.chapter7mvc;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 고정 크기 다이렉트 버퍼 풀 (소켓 읽기/쓰기마다 버퍼를 새로 할당하지 않음)
+class BufferPool {
+    // HTTP 서버와 스트리밍 응답이 함께 쓰는 16KB 버퍼 풀
+    static final BufferPool SHARED = new BufferPool(16 * 1024, 4096);
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return; // 풀이 가득 차면 GC 에 맡김
+        }
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    int bufferSize() { return bufferSize; }
+}
@@ -0,0 +1,193 @@
+package com.naver.chapter7mvc;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+// 핸들러가 결과를 조금씩 써 내려가는 출력 (Stream/Iterator 반환 핸들러도 내부적으로 이것을 사용)
+interface ResponseSink {
+    void write(CharSequence text);
+}
+
+// 청크 인코딩 응답 본문 - 생산자(핸들러 스레드)가 풀 버퍼에 청크를 채워 넘기고 리액터가 소켓으로 보냄
+// 대기열이 가득 차면 생산자가 멈추므로 응답 크기와 상관없이 메모리는 버퍼 몇 개로 일정함
+class ChunkedBody implements ResponseSink {
+    // "ffff\r\n" 청크 헤더를 나중에 앞쪽에 써 넣기 위한 예약 공간
+    private static final int HEADER_RESERVE = 8;
+    private static final int MAX_QUEUED_CHUNKS = 4;
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final BufferPool pool = BufferPool.SHARED;
+    private final BlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(MAX_QUEUED_CHUNKS);
+    // 짝이 없는 서로게이트 등은 '?' 로 바꿔 씀 (오류로 멈추지 않음)
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer current;
+    // write 끝에 걸린 상위 서로게이트 - 다음 write 의 첫 글자와 짝을 맞춤 (없으면 0)
+    private char pendingHigh;
+    private volatile boolean finished;
+    private volatile Throwable failure;
+    private volatile boolean cancelled;
+    // 새 청크가 생기거나 끝났을 때 리액터를 깨우는 콜백
+    private volatile Runnable listener;
+
+    @Override
+    public void write(CharSequence text) {
+        if (text.length() == 0) return;
+        CharSequence input = text;
+        if (pendingHigh != 0) {
+            input = new StringBuilder(text.length() + 1).append(pendingHigh).append(text);
+            pendingHigh = 0;
+        }
+        int end = input.length();
+        if (Character.isHighSurrogate(input.charAt(end - 1))) {
+            pendingHigh = input.charAt(--end);
+        }
+        encode(CharBuffer.wrap(input, 0, end), false);
+    }
+
+    // 입력을 모두 소비할 때까지 - 출력 버퍼가 차면 청크로 넘김
+    private void encode(CharBuffer chars, boolean endOfInput) {
+        while (true) {
+            ensureBuffer();
+            CoderResult result = encoder.encode(chars, current, endOfInput);
+            if (result.isOverflow()) {
+                flushChunk();
+                continue;
+            }
+            if (result.isError()) {
+                throw new IllegalStateException("인코딩 실패: " + result);
+            }
+            return;
+        }
+    }
+
+    // 생산자 쪽 종료 - 마지막 청크를 보내고 끝 표시
+    void close() {
+        if (pendingHigh != 0) {
+            // 짝을 못 찾은 상위 서로게이트는 대체 문자로
+            encode(CharBuffer.wrap(String.valueOf(pendingHigh)), true);
+            pendingHigh = 0;
+        }
+        flushChunk();
+        enqueue(ByteBuffer.wrap(LAST_CHUNK));
+        finished = true;
+        notifyListener();
+    }
+
+    // 생산 도중 실패 - 이미 헤더가 나갔으므로 연결을 끊어 클라이언트가 잘린 응답임을 알게 함
+    void abort(Throwable error) {
+        failure = error;
+        finished = true;
+        notifyListener();
+    }
+
+    // 연결이 먼저 끊긴 경우 (생산자는 다음 write 에서 멈춤)
+    void cancel() {
+        cancelled = true;
+        ByteBuffer buffer;
+        while ((buffer = queue.poll()) != null) pool.release(buffer);
+    }
+
+    // --- 리액터 쪽 ---
+
+    void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    ByteBuffer poll() {
+        return queue.poll();
+    }
+
+    boolean isComplete() {
+        return finished && queue.isEmpty();
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    // 인프로세스 호출(service)용 - 청크 틀을 벗겨 전체 본문을 문자열로 모음
+    String readFully() {
+        StringBuilder sb = new StringBuilder();
+        try {
+            while (!isComplete()) {
+                ByteBuffer chunk = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (chunk == null) continue;
+                int start = chunk.position();
+                while (chunk.get(start) != '\n') start++;
+                byte[] payload = new byte[chunk.limit() - 2 - (start + 1)];
+                chunk.get(start + 1, payload);
+                sb.append(new String(payload, StandardCharsets.UTF_8));
+                pool.release(chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) sb.append("\n[Stream aborted] ").append(failure);
+        return sb.toString();
+    }
+
+    private void ensureBuffer() {
+        if (cancelled) throw new CancellationException("클라이언트 연결이 끊겼습니다.");
+        if (current == null) {
+            current = pool.acquire();
+            current.position(HEADER_RESERVE);
+            current.limit(current.capacity() - 2); // 청크 끝 CRLF 자리
+        }
+    }
+
+    // 현재 버퍼를 "크기(hex) CRLF 데이터 CRLF" 청크로 마무리해서 대기열에 넣음
+    private void flushChunk() {
+        if (current == null) return;
+        ByteBuffer chunk = current;
+        current = null;
+        int size = chunk.position() - HEADER_RESERVE;
+        if (size == 0) {
+            pool.release(chunk);
+            return;
+        }
+        chunk.limit(chunk.capacity());
+        chunk.put((byte) '\r').put((byte) '\n');
+        int end = chunk.position();
+
+        int start = HEADER_RESERVE - 2;
+        chunk.put(start, (byte) '\r').put(start + 1, (byte) '\n');
+        do {
+            chunk.put(--start, HEX[size & 0xf]);
+            size >>>= 4;
+        } while (size > 0);
+        chunk.limit(end).position(start);
+        enqueue(chunk);
+        notifyListener();
+    }
+
+    private void enqueue(ByteBuffer chunk) {
+        try {
+            // 리액터가 못 따라오면 여기서 생산자가 대기 (배압)
+            while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled) {
+                    pool.release(chunk);
+                    throw new CancellationException("클라이언트 연결이 끊겼습니다.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("스트리밍이 중단되었습니다.");
+        }
+    }
+
+    private void notifyListener() {
+        Runnable l = listener;
+        if (l != null) l.run();
+    }
+}
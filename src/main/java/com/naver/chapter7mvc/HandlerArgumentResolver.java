@@ -0,0 +1,91 @@
+package com.naver.chapter7mvc;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// 핸들러 파라미터 하나를 요청에서 꺼내 변환하는 리졸버 (매핑 시점에 미리 만들어 둠)
+interface HandlerArgumentResolver {
+    Object resolve(HttpRequest request);
+
+    // 메서드의 모든 파라미터에 대해 리졸버를 만듦 (요청마다 getParameters() 를 다시 보지 않음)
+    static HandlerArgumentResolver[] forMethod(Method method) {
+        Parameter[] parameters = method.getParameters();
+        HandlerArgumentResolver[] resolvers = new HandlerArgumentResolver[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            resolvers[i] = forParameter(method, parameters[i]);
+        }
+        return resolvers;
+    }
+
+    static HandlerArgumentResolver forParameter(Method method, Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == HttpRequest.class) {
+            return request -> request;
+        }
+        if (type == ResponseSink.class) {
+            return request -> request.responseSink;
+        }
+        if (!parameter.isNamePresent()) {
+            throw new IllegalStateException("파라미터 이름을 알 수 없습니다 (-parameters 로 컴파일 필요): " + method);
+        }
+        String name = parameter.getName();
+        Function<String, Object> converter = converterFor(type);
+        if (converter == null) {
+            throw new IllegalStateException("지원하지 않는 파라미터 타입: " + type.getName() + " " + name + " in " + method);
+        }
+        boolean required = type.isPrimitive();
+        return request -> {
+            // 경로 변수 -> 쿼리/폼 파라미터 순서로 찾음
+            String raw = request.pathVariable(name);
+            if (raw == null) raw = request.params.get(name);
+            if (raw == null) {
+                if (required) throw new ArgumentBindingException("필수 파라미터 누락: " + name);
+                return null;
+            }
+            try {
+                return converter.apply(raw);
+            } catch (IllegalArgumentException e) {
+                throw new ArgumentBindingException("파라미터 변환 실패: " + name + "=" + raw);
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> converterFor(Class<?> type) {
+        if (type == String.class) return s -> s;
+        if (type == int.class || type == Integer.class) return Integer::valueOf;
+        if (type == long.class || type == Long.class) return Long::valueOf;
+        if (type == double.class || type == Double.class) return Double::valueOf;
+        if (type == boolean.class || type == Boolean.class) return HandlerArgumentResolver::parseBoolean;
+        if (type.isEnum()) {
+            // 상수 이름 -> 상수 표를 미리 만들어 두고 대소문자 구분 없이 찾음
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                constants.put(((Enum) constant).name().toUpperCase(Locale.ROOT), constant);
+            }
+            return s -> {
+                Object constant = constants.get(s.toUpperCase(Locale.ROOT));
+                if (constant == null) throw new IllegalArgumentException(s);
+                return constant;
+            };
+        }
+        return null;
+    }
+
+    private static Object parseBoolean(String s) {
+        if ("true".equalsIgnoreCase(s) || "1".equals(s) || "on".equalsIgnoreCase(s)) return Boolean.TRUE;
+        if ("false".equalsIgnoreCase(s) || "0".equals(s) || "off".equalsIgnoreCase(s)) return Boolean.FALSE;
+        throw new IllegalArgumentException(s);
+    }
+}
+
+// 요청 파라미터를 핸들러 인자로 바꿀 수 없을 때 (400 Bad Request)
+class ArgumentBindingException extends RuntimeException {
+    ArgumentBindingException(String message) {
+        super(message);
+    }
+}
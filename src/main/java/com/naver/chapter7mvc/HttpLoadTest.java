@@ -0,0 +1,126 @@
+package com.naver.chapter7mvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// 내장 HTTP 서버 로컬 부하 테스트 (keep-alive 연결에서 파이프라이닝 요청, 처리량과 지연 백분위 출력)
+// 인자: [클라이언트 수] [클라이언트당 요청 수] [파이프라이닝 깊이] [리액터 수] [caller|virtual]
+public class HttpLoadTest {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int reactors = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        boolean virtual = args.length > 4 && "virtual".equals(args[4]);
+
+        TinyDispatcherServlet dispatcher = new TinyDispatcherServlet(new TinyContainer());
+        if (virtual) {
+            dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.VIRTUAL_THREAD, 10_000);
+        }
+        TinyHttpServer server = new TinyHttpServer(dispatcher, 0, reactors);
+        server.start();
+        int port = server.getPort();
+        byte[] request = ("GET /user?id=42 HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        // 워밍업 (JIT)
+        runClients(port, request, 4, 2000, depth);
+
+        System.out.println("\n--- 부하 테스트: 클라이언트 " + clients + ", 요청 " + requestsPerClient + "/클라이언트, 파이프라이닝 " + depth + " ---");
+        long start = System.nanoTime();
+        long[] latencies = runClients(port, request, clients, requestsPerClient, depth);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("[Result] %d 요청, %.0f req/s%n", latencies.length, latencies.length / (elapsed / 1e9));
+        System.out.printf("[Result] latency p50=%dus p90=%dus p99=%dus max=%dus%n",
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99), latencies[latencies.length - 1] / 1000);
+        server.stop();
+    }
+
+    private static long[] runClients(int port, byte[] request, int clients, int requestsPerClient, int depth) throws InterruptedException {
+        List<long[]> results = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            long[] latencies = new long[requestsPerClient - requestsPerClient % depth];
+            results.add(latencies);
+            new Thread(() -> {
+                try (Socket socket = new Socket("localhost", port)) {
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = socket.getInputStream();
+                    byte[] batch = new byte[request.length * depth];
+                    for (int i = 0; i < depth; i++) System.arraycopy(request, 0, batch, i * request.length, request.length);
+                    byte[] readBuffer = new byte[64 * 1024];
+                    for (int sent = 0; sent < latencies.length; sent += depth) {
+                        long begin = System.nanoTime();
+                        out.write(batch);
+                        out.flush();
+                        readResponses(in, readBuffer, depth);
+                        long latency = System.nanoTime() - begin;
+                        for (int i = 0; i < depth; i++) latencies[sent + i] = latency;
+                    }
+                } catch (IOException e) {
+                    System.out.println("[Client Error] " + e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await(5, TimeUnit.MINUTES);
+        return results.stream().flatMapToLong(Arrays::stream).toArray();
+    }
+
+    // Content-Length 로 응답 경계를 찾아 count 개의 응답을 모두 읽음
+    private static void readResponses(InputStream in, byte[] buf, int count) throws IOException {
+        int filled = 0;
+        int pos = 0;
+        while (count > 0) {
+            int headerEnd = find(buf, pos, filled);
+            if (headerEnd >= 0) {
+                int contentLength = contentLength(buf, pos, headerEnd);
+                int end = headerEnd + 4 + contentLength;
+                if (end <= filled) {
+                    pos = end;
+                    count--;
+                    continue;
+                }
+            }
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, filled - pos);
+                filled -= pos;
+                pos = 0;
+            }
+            int n = in.read(buf, filled, buf.length - filled);
+            if (n < 0) throw new IOException("서버가 연결을 닫음");
+            filled += n;
+        }
+    }
+
+    private static int find(byte[] buf, int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (buf[i] == '\r' && buf[i + 1] == '\n' && buf[i + 2] == '\r' && buf[i + 3] == '\n') return i;
+        }
+        return -1;
+    }
+
+    private static int contentLength(byte[] buf, int from, int to) {
+        String head = new String(buf, from, to - from, StandardCharsets.US_ASCII);
+        int idx = head.indexOf("Content-Length: ");
+        if (idx < 0) return 0;
+        int end = head.indexOf('\r', idx);
+        return Integer.parseInt(head.substring(idx + 16, end < 0 ? head.length() : end).trim());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1000;
+    }
+}
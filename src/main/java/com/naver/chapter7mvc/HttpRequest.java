@@ -0,0 +1,49 @@
+package com.naver.chapter7mvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 디스패처로 전달되는 HTTP 요청 (인프로세스 호출과 HTTP 서버 모두 이 형태로 들어옴)
+class HttpRequest implements PathVariableSink {
+    final String method;
+    final String path;
+    // 헤더 이름은 소문자로 정규화 (HTTP 서버에서는 요청 원문 위의 지연 뷰 - LazyHeaderMap)
+    final Map<String, String> headers;
+    // HTTP 서버에서는 찾는 이름만 디코딩하는 지연 뷰 (LazyParamMap)
+    final Map<String, String> params;
+    final boolean keepAlive;
+    // 요청을 받은 시각 (입장 제어가 큐 지연을 계산할 때 사용)
+    // HTTP 서버는 파싱 시각이 아니라 요청 바이트가 처음 도착한 시각으로 덮어씀 (리액터가 밀린 시간까지 큐 지연에 포함)
+    long receivedAt = System.nanoTime();
+    // /user/{id} 같은 경로 변수 (변수가 있는 라우트에 매칭될 때만 생성)
+    private Map<String, String> pathVariables;
+    // ResponseSink 파라미터를 받는 핸들러에 넘겨줄 스트리밍 본문 (디스패처가 설정)
+    ChunkedBody responseSink;
+
+    HttpRequest(String method, String path, Map<String, String> headers, Map<String, String> params, boolean keepAlive) {
+        this.method = method;
+        this.path = path;
+        this.headers = headers;
+        this.params = params;
+        this.keepAlive = keepAlive;
+    }
+
+    // 기존 service(url, params) 호출용
+    static HttpRequest of(String url, Map<String, String> params) {
+        return new HttpRequest("GET", url, new HashMap<>(), params, false);
+    }
+
+    String header(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public void putPathVariable(String name, String value) {
+        if (pathVariables == null) pathVariables = new HashMap<>();
+        pathVariables.put(name, value);
+    }
+
+    String pathVariable(String name) {
+        return pathVariables == null ? null : pathVariables.get(name);
+    }
+}
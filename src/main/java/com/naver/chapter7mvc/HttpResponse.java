@@ -0,0 +1,97 @@
+package com.naver.chapter7mvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 디스패처가 만들어 내는 응답 (HTTP 서버가 바이트로 직렬화)
+class HttpResponse {
+    final int status;
+    final Map<String, String> headers = new LinkedHashMap<>();
+    byte[] body;
+    // 청크 인코딩으로 흘려보내는 본문 (이 경우 body 는 null)
+    ChunkedBody chunked;
+    // 파일 구간을 그대로 소켓으로 보내는 본문 (이 경우 body 는 null)
+    FileRegion file;
+    // 서버 캐시에 보관된(공유) 응답이면 생성됨 - 인코딩별 압축 결과를 한 번만 만들어 재사용
+    Map<String, HttpResponse> variants;
+
+    HttpResponse(int status, byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    static HttpResponse ok(String text) {
+        HttpResponse response = new HttpResponse(200, text.getBytes(StandardCharsets.UTF_8));
+        response.headers.put("Content-Type", "text/plain; charset=utf-8");
+        return response;
+    }
+
+    static HttpResponse streaming(ChunkedBody chunked) {
+        HttpResponse response = new HttpResponse(200, null);
+        response.chunked = chunked;
+        response.headers.put("Content-Type", "text/plain; charset=utf-8");
+        return response;
+    }
+
+    static HttpResponse file(int status, FileRegion file) {
+        HttpResponse response = new HttpResponse(status, null);
+        response.file = file;
+        return response;
+    }
+
+    static HttpResponse notModified() {
+        return new HttpResponse(304, new byte[0]);
+    }
+
+    static HttpResponse error(int status) {
+        HttpResponse response = new HttpResponse(status, reason(status).getBytes(StandardCharsets.US_ASCII));
+        response.headers.put("Content-Type", "text/plain; charset=utf-8");
+        return response;
+    }
+
+    // 여러 요청이 같이 쓰는 응답으로 표시 (이후 단계는 수정하지 않고 변형본을 만듦)
+    HttpResponse share() {
+        if (variants == null) variants = new ConcurrentHashMap<>();
+        return this;
+    }
+
+    HttpResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    String bodyAsString() {
+        if (chunked != null) return chunked.readFully();
+        if (file != null) {
+            try {
+                return new String(file.readAll(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                file.release();
+            }
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 204: return "No Content";
+            case 206: return "Partial Content";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 413: return "Payload Too Large";
+            case 416: return "Range Not Satisfiable";
+            case 500: return "Internal Server Error";
+            case 503: return "Service Unavailable";
+            default: return "Unknown";
+        }
+    }
+}
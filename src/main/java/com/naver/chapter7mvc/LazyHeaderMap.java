@@ -0,0 +1,156 @@
+package com.naver.chapter7mvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// 요청 원문의 헤더 영역 위의 맵 - 요청마다 헤더 전체를 String 맵으로 만들지 않고, 찾는 헤더만 그때 스캔
+// 맵 전체가 필요한 연산(entrySet, put 등)을 만나면 그때 한 번만 HashMap 으로 펼침 (이름은 소문자)
+// 중복 헤더는 지연 조회와 펼친 맵 모두 첫 값 기준 (펼치기 전후로 get 결과가 바뀌지 않음)
+final class LazyHeaderMap extends AbstractMap<String, String> {
+    private final byte[] raw;
+    private final int from;
+    private final int to;
+    private Map<String, String> materialized;
+
+    LazyHeaderMap(byte[] raw, int from, int to) {
+        this.raw = raw;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public String get(Object name) {
+        if (materialized != null) return materialized.get(name);
+        CharSequence value = name instanceof String ? view((String) name) : null;
+        return value == null ? null : value.toString();
+    }
+
+    // 문자열을 만들지 않고 원문 바이트를 그대로 보여주는 값 (없으면 null)
+    CharSequence view(String name) {
+        if (materialized != null) return materialized.get(name);
+        long range = locate(raw, from, to, name);
+        return range < 0 ? null : new AsciiSequence(raw, (int) (range >>> 32), (int) range);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public String put(String name, String value) {
+        return materialize().put(name, value);
+    }
+
+    @Override
+    public String remove(Object name) {
+        return materialize().remove(name);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    // raw[from, to) 의 "Name: value\r\n" 줄들에서 이름이 같은(대소문자 무시) 첫 헤더 값의 (시작 << 32 | 끝), 없으면 -1
+    static long locate(byte[] raw, int from, int to, String name) {
+        int pos = from;
+        while (pos < to) {
+            int end = indexOf(raw, pos, to, '\r');
+            int colon = indexOf(raw, pos, end, ':');
+            if (colon - pos == name.length() && regionMatchesIgnoreCase(raw, pos, name)) {
+                int valueStart = colon + 1;
+                while (valueStart < end && raw[valueStart] == ' ') valueStart++;
+                return ((long) valueStart << 32) | end;
+            }
+            pos = end + 2;
+        }
+        return -1;
+    }
+
+    static int indexOf(byte[] raw, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (raw[i] == c) return i;
+        }
+        return to;
+    }
+
+    private static boolean regionMatchesIgnoreCase(byte[] raw, int offset, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            int b = raw[offset + i];
+            if (b >= 'A' && b <= 'Z') b += 'a' - 'A';
+            if (b != Character.toLowerCase(name.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private Map<String, String> materialize() {
+        if (materialized == null) {
+            Map<String, String> map = new HashMap<>();
+            int pos = from;
+            while (pos < to) {
+                int end = indexOf(raw, pos, to, '\r');
+                int colon = indexOf(raw, pos, end, ':');
+                int valueStart = Math.min(colon + 1, end);
+                while (valueStart < end && raw[valueStart] == ' ') valueStart++;
+                // 같은 이름이 여러 번 오면 locate 와 같게 첫 값이 이김
+                map.putIfAbsent(new String(raw, pos, colon - pos, StandardCharsets.US_ASCII).toLowerCase(),
+                        new String(raw, valueStart, end - valueStart, StandardCharsets.ISO_8859_1));
+                pos = end + 2;
+            }
+            materialized = map;
+        }
+        return materialized;
+    }
+}
+
+// 바이트 배열 일부를 Latin-1 문자열처럼 보여주는 뷰 (복사 없음)
+final class AsciiSequence implements CharSequence {
+    private final byte[] bytes;
+    private final int start;
+    private final int end;
+
+    AsciiSequence(byte[] bytes, int start, int end) {
+        this.bytes = bytes;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes[start + index] & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return new AsciiSequence(bytes, start + from, start + to);
+    }
+
+    // String 을 만들지 않고 비교 (헤더 값 판단용)
+    static boolean equalsIgnoreCase(CharSequence value, String s) {
+        return value.length() == s.length() && startsWithIgnoreCase(value, s);
+    }
+
+    static boolean startsWithIgnoreCase(CharSequence value, String prefix) {
+        if (value.length() < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            char a = value.charAt(i);
+            char b = prefix.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+}
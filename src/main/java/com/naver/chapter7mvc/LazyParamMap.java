@@ -0,0 +1,138 @@
+package com.naver.chapter7mvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// 쿼리스트링/폼 바디 원문 바이트 위의 파라미터 맵 - 핸들러가 바인딩하는 이름만 찾아서 그 값만 퍼센트 디코딩
+// 맵 전체가 필요한 연산(entrySet, put 등)을 만나면 그때 한 번만 HashMap 으로 펼침
+final class LazyParamMap extends AbstractMap<String, String> {
+    private final byte[] raw;
+    // (시작, 끝) 쌍 - 쿼리스트링, 폼 바디 순서 (같은 이름이면 뒤에 나온 값이 이김)
+    private final int[] ranges;
+    private Map<String, String> materialized;
+
+    LazyParamMap(byte[] raw, int[] ranges) {
+        this.raw = raw;
+        this.ranges = ranges;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (materialized != null) return materialized.get(key);
+        if (!(key instanceof String)) return null;
+        String name = (String) key;
+        String value = null;
+        for (int r = 0; r < ranges.length; r += 2) {
+            int pos = ranges[r];
+            int end = ranges[r + 1];
+            while (pos < end) {
+                int amp = LazyHeaderMap.indexOf(raw, pos, end, '&');
+                int eq = LazyHeaderMap.indexOf(raw, pos, amp, '=');
+                if (eq > pos && nameEquals(pos, eq, name)) {
+                    value = decode(raw, Math.min(eq + 1, amp), amp);
+                }
+                pos = amp + 1;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public String remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    // 파라미터 원문 (범위들을 '&' 로 이어 붙인 것, 디코딩 없음) - 응답 캐시 키용
+    // 이미 펼쳐진 맵은 put/remove 로 바뀌었을 수 있으므로 null
+    String rawText() {
+        if (materialized != null) return null;
+        StringBuilder text = new StringBuilder();
+        for (int r = 0; r < ranges.length; r += 2) {
+            if (r > 0) text.append('&');
+            text.append(new String(raw, ranges[r], ranges[r + 1] - ranges[r], StandardCharsets.ISO_8859_1));
+        }
+        return text.toString();
+    }
+
+    // 인코딩되지 않은 ASCII 이름은 바이트끼리 바로 비교 (대부분의 경우 할당 없음)
+    private boolean nameEquals(int start, int end, String name) {
+        for (int i = start; i < end; i++) {
+            if (raw[i] == '%' || raw[i] == '+' || raw[i] < 0) return decode(raw, start, end).equals(name);
+        }
+        if (end - start != name.length()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            if (raw[start + i] != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // application/x-www-form-urlencoded 디코딩 ('+' -> 공백, %XX -> 바이트, 잘못된 % 는 그대로)
+    static String decode(byte[] raw, int start, int end) {
+        int i = start;
+        while (i < end && raw[i] != '%' && raw[i] != '+') i++;
+        if (i == end) return new String(raw, start, end - start, StandardCharsets.UTF_8);
+
+        byte[] out = new byte[end - start];
+        int n = i - start;
+        System.arraycopy(raw, start, out, 0, n);
+        for (; i < end; i++) {
+            byte b = raw[i];
+            if (b == '+') {
+                out[n++] = ' ';
+            } else if (b == '%' && i + 2 < end && hex(raw[i + 1]) >= 0 && hex(raw[i + 2]) >= 0) {
+                out[n++] = (byte) (hex(raw[i + 1]) << 4 | hex(raw[i + 2]));
+                i += 2;
+            } else {
+                out[n++] = b;
+            }
+        }
+        return new String(out, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private static int hex(byte b) {
+        if (b >= '0' && b <= '9') return b - '0';
+        if (b >= 'a' && b <= 'f') return b - 'a' + 10;
+        if (b >= 'A' && b <= 'F') return b - 'A' + 10;
+        return -1;
+    }
+
+    private Map<String, String> materialize() {
+        if (materialized == null) {
+            Map<String, String> map = new HashMap<>();
+            for (int r = 0; r < ranges.length; r += 2) {
+                int pos = ranges[r];
+                int end = ranges[r + 1];
+                while (pos < end) {
+                    int amp = LazyHeaderMap.indexOf(raw, pos, end, '&');
+                    int eq = LazyHeaderMap.indexOf(raw, pos, amp, '=');
+                    if (eq > pos) {
+                        map.put(decode(raw, pos, eq), decode(raw, Math.min(eq + 1, amp), amp));
+                    } else if (amp > pos) {
+                        map.put(decode(raw, pos, amp), "");
+                    }
+                    pos = amp + 1;
+                }
+            }
+            materialized = map;
+        }
+        return materialized;
+    }
+}
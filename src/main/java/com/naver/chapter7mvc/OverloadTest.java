@@ -0,0 +1,87 @@
+package com.naver.chapter7mvc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// 처리량의 2배를 일정한 속도로 밀어 넣었을 때 입장 제어 유무에 따른 p99 비교 (로컬 측정용, 개방형 부하)
+// 인자: [초] [부하 배수]
+public class OverloadTest {
+    private static final int CONCURRENCY = 16;
+    private static final int SERVICE_MILLIS = 10;
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        double overload = args.length > 1 ? Double.parseDouble(args[1]) : 2.0;
+        int capacity = CONCURRENCY * 1000 / SERVICE_MILLIS;
+        int rate = (int) (capacity * overload);
+        System.out.println("--- 과부하 테스트: 처리량 " + capacity + " req/s, 부하 " + rate + " req/s, " + seconds + "초 ---");
+
+        run("입장 제어 없음", false, rate, seconds);
+        run("입장 제어 (5ms/100ms)", true, rate, seconds);
+    }
+
+    private static void run(String label, boolean admission, int rate, int seconds) {
+        TinyDispatcherServlet dispatcher = new TinyDispatcherServlet(new TinyContainer());
+        dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.VIRTUAL_THREAD, CONCURRENCY);
+        if (admission) dispatcher.configureAdmission(5, 100);
+
+        Map<String, String> params = new HashMap<>();
+        params.put("millis", String.valueOf(SERVICE_MILLIS));
+        int total = rate * seconds;
+        long[] latency = new long[total];
+        int[] status = new int[total];
+        CompletableFuture<?>[] futures = new CompletableFuture[total];
+        int healthChecks = seconds * 100;
+        CompletableFuture<?>[] health = new CompletableFuture[healthChecks];
+        long[] healthLatency = new long[healthChecks];
+
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        int h = 0;
+        for (int i = 0; i < total; i++) {
+            long due = start + i * period;
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            int index = i;
+            HttpRequest request = HttpRequest.of("/slow", params);
+            futures[i] = dispatcher.handleAsync(request).whenComplete((r, e) -> {
+                latency[index] = System.nanoTime() - request.receivedAt;
+                status[index] = r != null ? r.status : 500;
+            });
+            // 10ms 마다 헬스 체크
+            if (h < healthChecks && due - start >= h * TimeUnit.MILLISECONDS.toNanos(10)) {
+                int healthIndex = h++;
+                HttpRequest check = HttpRequest.of("/health", new HashMap<>());
+                health[healthIndex] = dispatcher.handleAsync(check).whenComplete((r, e) -> {
+                    healthLatency[healthIndex] = r != null && r.status == 200 ? System.nanoTime() - check.receivedAt : -1;
+                });
+            }
+        }
+        CompletableFuture.allOf(futures).join();
+        CompletableFuture.allOf(Arrays.copyOf(health, h)).join();
+
+        long[] ok = new long[total];
+        int okCount = 0;
+        int rejected = 0;
+        for (int i = 0; i < total; i++) {
+            if (status[i] == 200) ok[okCount++] = latency[i];
+            else if (status[i] == 503) rejected++;
+        }
+        long[] healthOk = Arrays.stream(healthLatency, 0, h).filter(l -> l >= 0).toArray();
+        System.out.println("[Result] " + label + ": 성공 " + okCount + ", 503 " + rejected
+                + ", 성공 응답 p50=" + percentile(ok, okCount, 50) + "ms p99=" + percentile(ok, okCount, 99) + "ms"
+                + ", 헬스 체크 " + healthOk.length + "/" + h + " p99=" + percentile(healthOk, healthOk.length, 99) + "ms");
+        dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.CALLER_RUNS, 0);
+    }
+
+    private static long percentile(long[] values, int count, int p) {
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.min(count - 1, count * p / 100)]);
+    }
+}
@@ -0,0 +1,313 @@
+package com.naver.chapter7mvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 매칭된 경로 변수를 받는 쪽 (HttpRequest 가 구현 - 리터럴 경로는 한 번도 호출되지 않음)
+interface PathVariableSink {
+    void putPathVariable(String name, String value);
+}
+
+// 압축 래딕스 트리 라우터
+//  - 리터럴:   /user/list
+//  - 변수:     /user/{id}       (다음 '/' 전까지 캡처)
+//  - 와일드:   /a/*/b           (한 세그먼트, 캡처 안 함)
+//  - 나머지:   /files/**, /files/{*path}  (끝까지)
+// 매칭 시간은 경로 길이에 비례하고, 리터럴 경로 매칭은 객체를 할당하지 않음
+class RadixRouter<T> {
+    private static final int MAX_CAPTURES = 16;
+    private static final String ANY_METHOD = "*";
+
+    private final Node<T> root = new Node<>("");
+    // 캡처 위치 (시작, 끝) 를 담는 스레드별 작업 공간
+    private final ThreadLocal<int[]> captures = ThreadLocal.withInitial(() -> new int[MAX_CAPTURES * 2]);
+    private int size;
+
+    static final class Route<T> {
+        final String method;
+        final String pattern;
+        final T handler;
+        // 캡처 순서대로의 변수 이름 (익명 와일드카드는 null)
+        final String[] variableNames;
+        // 마지막 캡처가 {*path} / ** 인지
+        final boolean catchAll;
+
+        Route(String method, String pattern, T handler, String[] variableNames, boolean catchAll) {
+            this.method = method;
+            this.pattern = pattern;
+            this.handler = handler;
+            this.variableNames = variableNames;
+            this.catchAll = catchAll;
+        }
+    }
+
+    private static final class Node<T> {
+        String prefix;
+        // 리터럴 자식: 첫 글자로 찾음
+        char[] indices = new char[0];
+        List<Node<T>> children = new ArrayList<>();
+        Node<T> paramChild;
+        Node<T> catchAllChild;
+        Map<String, Route<T>> routes;
+
+        Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        Node<T> child(char c) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == c) return children.get(i);
+            }
+            return null;
+        }
+
+        void addChild(Node<T> child) {
+            char[] grown = new char[indices.length + 1];
+            System.arraycopy(indices, 0, grown, 0, indices.length);
+            grown[indices.length] = child.prefix.charAt(0);
+            indices = grown;
+            children.add(child);
+        }
+
+        // 메서드 그대로 > (HEAD 면) GET > 모든 메서드 순 (HEAD 는 GET 핸들러로 처리하고 서버가 본문만 뺌)
+        Route<T> route(String method) {
+            if (routes == null) return null;
+            Route<T> route = routes.get(method);
+            if (route == null && "HEAD".equals(method)) route = routes.get("GET");
+            return route != null ? route : routes.get(ANY_METHOD);
+        }
+    }
+
+    // method 가 null 또는 빈 문자열이면 모든 메서드에 매칭
+    void add(String method, String pattern, T handler) {
+        if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+            throw new IllegalArgumentException("경로는 '/' 로 시작해야 합니다: " + pattern);
+        }
+        String key = (method == null || method.isEmpty()) ? ANY_METHOD : method.toUpperCase();
+        List<String> names = new ArrayList<>();
+        boolean catchAll = false;
+        Node<T> node = root;
+        int pos = 0;
+        while (pos < pattern.length()) {
+            int brace = nextSpecial(pattern, pos);
+            if (brace > pos) {
+                node = insertLiteral(node, pattern.substring(pos, brace));
+                pos = brace;
+                continue;
+            }
+            // pos 가 특수 세그먼트 시작
+            if (pattern.charAt(pos - 1) != '/') {
+                throw new IllegalArgumentException("경로 변수는 세그먼트 전체여야 합니다: " + pattern);
+            }
+            if (pattern.startsWith("**", pos) || pattern.startsWith("{*", pos)) {
+                int end = pattern.startsWith("**", pos) ? pos + 2 : pattern.indexOf('}', pos) + 1;
+                if (end != pattern.length()) {
+                    throw new IllegalArgumentException("'**' 는 경로 끝에만 올 수 있습니다: " + pattern);
+                }
+                names.add(pattern.charAt(pos) == '{' ? pattern.substring(pos + 2, end - 1) : null);
+                if (node.catchAllChild == null) node.catchAllChild = new Node<>("");
+                node = node.catchAllChild;
+                catchAll = true;
+                pos = end;
+            } else {
+                int end = pattern.charAt(pos) == '*' ? pos + 1 : pattern.indexOf('}', pos) + 1;
+                if (end == 0 || (end < pattern.length() && pattern.charAt(end) != '/')) {
+                    throw new IllegalArgumentException("경로 변수는 세그먼트 전체여야 합니다: " + pattern);
+                }
+                names.add(pattern.charAt(pos) == '*' ? null : pattern.substring(pos + 1, end - 1));
+                if (node.paramChild == null) node.paramChild = new Node<>("");
+                node = node.paramChild;
+                pos = end;
+            }
+        }
+        if (names.size() > MAX_CAPTURES) {
+            throw new IllegalArgumentException("경로 변수가 너무 많습니다: " + pattern);
+        }
+        if (node.routes == null) node.routes = new HashMap<>();
+        Route<T> existing = node.routes.putIfAbsent(key, new Route<>(key, pattern, handler, names.toArray(new String[0]), catchAll));
+        if (existing != null) {
+            throw new IllegalStateException("중복 매핑: " + key + " " + pattern + " (기존: " + existing.pattern + ")");
+        }
+        size++;
+    }
+
+    // 경로와 메서드에 맞는 라우트를 찾고, 경로 변수가 있으면 sink 에 채움
+    Route<T> match(String method, String path, PathVariableSink sink) {
+        int[] caps = captures.get();
+        Route<T> route = match(root, method, path, 0, caps, 0);
+        if (route != null && route.variableNames.length > 0) {
+            for (int i = 0; i < route.variableNames.length; i++) {
+                if (route.variableNames[i] != null) {
+                    // 매칭은 인코딩된 원문 그대로 하고, 캡처한 값만 디코딩 (%2F 가 세그먼트를 나누지 않도록)
+                    boolean catchAll = i == route.variableNames.length - 1 && route.catchAll;
+                    sink.putPathVariable(route.variableNames[i], decode(path, caps[i * 2], caps[i * 2 + 1], catchAll));
+                }
+            }
+        }
+        return route;
+    }
+
+    // 메서드와 관계없이 경로가 등록되어 있는지 (404 / 405 구분용)
+    boolean hasPath(String path) {
+        return match(root, null, path, 0, captures.get(), 0) != null;
+    }
+
+    // 경로에 등록된 메서드들 (405 응답의 Allow 헤더용, GET 이 있으면 HEAD 도 포함)
+    String allowedMethods(String path) {
+        Set<String> methods = new TreeSet<>();
+        collectMethods(root, path, 0, methods);
+        methods.remove(ANY_METHOD);
+        if (methods.contains("GET")) methods.add("HEAD");
+        return String.join(", ", methods);
+    }
+
+    int size() { return size; }
+
+    // match 와 같은 후보를 모두 돌며 라우트가 있는 메서드를 모음
+    private void collectMethods(Node<T> node, String path, int pos, Set<String> methods) {
+        if (!path.regionMatches(pos, node.prefix, 0, node.prefix.length())) return;
+        pos += node.prefix.length();
+
+        if (pos == path.length()) {
+            if (node.routes != null) methods.addAll(node.routes.keySet());
+        } else {
+            Node<T> literal = node.child(path.charAt(pos));
+            if (literal != null) collectMethods(literal, path, pos, methods);
+            if (node.paramChild != null) {
+                int end = path.indexOf('/', pos);
+                if (end < 0) end = path.length();
+                if (end > pos) collectMethods(node.paramChild, path, end, methods);
+            }
+        }
+        if (node.catchAllChild != null && node.catchAllChild.routes != null) {
+            methods.addAll(node.catchAllChild.routes.keySet());
+        }
+    }
+
+    // 우선순위: 리터럴 > {변수} > ** (실패 시 되돌아가서 다음 후보 시도)
+    private Route<T> match(Node<T> node, String method, String path, int pos, int[] caps, int depth) {
+        if (!path.regionMatches(pos, node.prefix, 0, node.prefix.length())) return null;
+        pos += node.prefix.length();
+
+        if (pos == path.length()) {
+            Route<T> route = routeFor(node, method);
+            if (route != null) return route;
+        } else {
+            Node<T> literal = node.child(path.charAt(pos));
+            if (literal != null) {
+                Route<T> route = match(literal, method, path, pos, caps, depth);
+                if (route != null) return route;
+            }
+            if (node.paramChild != null) {
+                int end = path.indexOf('/', pos);
+                if (end < 0) end = path.length();
+                if (end > pos) {
+                    caps[depth * 2] = pos;
+                    caps[depth * 2 + 1] = end;
+                    Route<T> route = match(node.paramChild, method, path, end, caps, depth + 1);
+                    if (route != null) return route;
+                }
+            }
+        }
+        if (node.catchAllChild != null) {
+            Route<T> route = routeFor(node.catchAllChild, method);
+            if (route != null) {
+                caps[depth * 2] = pos;
+                caps[depth * 2 + 1] = path.length();
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private Route<T> routeFor(Node<T> node, String method) {
+        if (method != null) return node.route(method);
+        return node.routes == null || node.routes.isEmpty() ? null : node.routes.values().iterator().next();
+    }
+
+    // 공통 접두사를 기준으로 노드를 쪼개며 리터럴 삽입
+    private Node<T> insertLiteral(Node<T> node, String literal) {
+        int pos = 0;
+        while (pos < literal.length()) {
+            Node<T> child = node.child(literal.charAt(pos));
+            if (child == null) {
+                Node<T> leaf = new Node<>(literal.substring(pos));
+                node.addChild(leaf);
+                return leaf;
+            }
+            int common = commonPrefix(child.prefix, literal, pos);
+            if (common < child.prefix.length()) {
+                // child 를 [공통부분] -> [나머지] 로 분할
+                Node<T> rest = new Node<>(child.prefix.substring(common));
+                rest.indices = child.indices;
+                rest.children = child.children;
+                rest.paramChild = child.paramChild;
+                rest.catchAllChild = child.catchAllChild;
+                rest.routes = child.routes;
+                child.prefix = child.prefix.substring(0, common);
+                child.indices = new char[0];
+                child.children = new ArrayList<>();
+                child.paramChild = null;
+                child.catchAllChild = null;
+                child.routes = null;
+                child.addChild(rest);
+            }
+            node = child;
+            pos += common;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String prefix, String literal, int from) {
+        int max = Math.min(prefix.length(), literal.length() - from);
+        int i = 0;
+        while (i < max && prefix.charAt(i) == literal.charAt(from + i)) i++;
+        return i;
+    }
+
+    // 경로 일부의 UTF-8 퍼센트 디코딩 ('+' 는 경로에서 공백이 아님)
+    // keepSlash 면 %2F 는 그대로 두어 나머지 경로의 세그먼트 경계를 지킴, 잘못된 인코딩은 원문 그대로 돌려줌
+    static String decode(String path, int from, int to, boolean keepSlash) {
+        int percent = path.indexOf('%', from);
+        if (percent < 0 || percent >= to) return path.substring(from, to);
+        byte[] bytes = new byte[to - from];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c == '%') {
+                int hi = i + 2 < to ? Character.digit(path.charAt(i + 1), 16) : -1;
+                int lo = hi >= 0 ? Character.digit(path.charAt(i + 2), 16) : -1;
+                if (lo < 0) return path.substring(from, to);
+                int b = (hi << 4) | lo;
+                if (keepSlash && b == '/') {
+                    bytes[n++] = '%';
+                    bytes[n++] = (byte) path.charAt(i + 1);
+                    bytes[n++] = (byte) path.charAt(i + 2);
+                } else {
+                    bytes[n++] = (byte) b;
+                }
+                i += 2;
+            } else if (c < 0x80) {
+                bytes[n++] = (byte) c;
+            } else {
+                // 요청 줄은 ASCII 여야 하지만, 인프로세스 호출로 들어온 비 ASCII 는 그대로 둠
+                return path.substring(from, to);
+            }
+        }
+        return new String(bytes, 0, n, StandardCharsets.UTF_8);
+    }
+
+    // 다음 '{' 또는 '*' 위치 (없으면 문자열 끝)
+    private static int nextSpecial(String pattern, int from) {
+        for (int i = from; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{' || c == '*') return i;
+        }
+        return pattern.length();
+    }
+}
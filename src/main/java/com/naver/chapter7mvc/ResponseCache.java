@@ -0,0 +1,168 @@
+package com.naver.chapter7mvc;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+// @MyCacheControl 라우트 하나의 캐시 정책 - Cache-Control/ETag 헤더, If-None-Match 에 304, 선택적 서버 쪽 응답 캐시
+// 서버 캐시에 들어간 HttpResponse 는 여러 요청이 공유하므로 이후 단계에서 수정하면 안 됨
+class ResponseCache {
+    private static final String[] ENCODING_SUFFIXES = {"-gzip\"", "-deflate\""};
+
+    private final String cacheControl;
+    private final boolean etag;
+    private final long ttlNanos;
+    private final int maxEntries;
+    // (경로, 파라미터 문자열) -> 직렬화와 ETag 계산까지 끝난 응답
+    private final Map<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ResponseCache(MyCacheControl policy) {
+        this.cacheControl = policy.maxAge() > 0 ? "max-age=" + policy.maxAge() : "no-cache";
+        this.etag = policy.etag();
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(policy.serverCacheMillis());
+        this.maxEntries = policy.maxEntries();
+    }
+
+    // 애너테이션이 없으면 null (캐시 처리를 아예 거치지 않음)
+    static ResponseCache forMethod(Method method) {
+        MyCacheControl policy = method.getAnnotation(MyCacheControl.class);
+        return policy == null ? null : new ResponseCache(policy);
+    }
+
+    // 서버 캐시 적중이면 컨트롤러 호출 없이 바로 응답, 아니면 invoke 결과에 헤더를 붙이고 저장
+    CompletableFuture<HttpResponse> handle(HttpRequest request, Supplier<CompletableFuture<HttpResponse>> invoke) {
+        CacheKey key = null;
+        if (ttlNanos > 0) {
+            key = new CacheKey(request.path, paramKey(request.params));
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return CompletableFuture.completedFuture(conditional(request, entry.response));
+            }
+            misses.increment();
+        }
+        CacheKey lookupKey = key;
+        return invoke.get().thenApply(response -> {
+            // 오류, 스트리밍, 파일 응답은 그대로 통과
+            if (response.status != 200 || response.body == null) return response;
+            response.header("Cache-Control", cacheControl);
+            if (etag) response.header("ETag", etagOf(response.body));
+            if (lookupKey != null) store(lookupKey, response);
+            return conditional(request, response);
+        });
+    }
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    // 본문 바이트에 대한 강한 ETag (길이 + CRC32C, CRC32C 는 CPU 명령으로 계산됨)
+    static String etagOf(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body, 0, body.length);
+        return "\"" + Integer.toHexString(body.length) + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    // If-None-Match: "a", W/"b" 또는 * (GET 의 If-None-Match 는 약한 비교)
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        int start = 0;
+        while (start < ifNoneMatch.length()) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) end = ifNoneMatch.length();
+            String candidate = ifNoneMatch.substring(start, end).trim();
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            // 압축 단계가 붙인 인코딩 접미사("...-gzip") 는 같은 표현으로 봄
+            candidate = stripEncoding(candidate);
+            if (candidate.equals("*") || candidate.equals(etag)) return true;
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String stripEncoding(String tag) {
+        for (String suffix : ENCODING_SUFFIXES) {
+            if (tag.endsWith(suffix)) return tag.substring(0, tag.length() - suffix.length()) + "\"";
+        }
+        return tag;
+    }
+
+    private HttpResponse conditional(HttpRequest request, HttpResponse response) {
+        String tag = response.headers.get("ETag");
+        if (tag != null && matches(request.header("if-none-match"), tag)) {
+            return HttpResponse.notModified().header("ETag", tag).header("Cache-Control", cacheControl);
+        }
+        return response;
+    }
+
+    private void store(CacheKey key, HttpResponse response) {
+        if (entries.size() >= maxEntries) {
+            evictOne();
+        }
+        entries.put(key, new Entry(response.share(), System.nanoTime() + ttlNanos));
+    }
+
+    // 파라미터를 캐시 키 문자열로 - HTTP 요청은 쿼리 원문 그대로(LazyParamMap 을 펼치지 않음),
+    // 인프로세스 호출의 일반 맵은 이름순 정렬한 정규형 (두 형식이 섞이지 않도록 앞 글자로 구분)
+    static String paramKey(Map<String, String> params) {
+        if (params instanceof LazyParamMap) {
+            String raw = ((LazyParamMap) params).rawText();
+            if (raw != null) return "?" + raw;
+        }
+        if (params.isEmpty()) return "";
+        StringBuilder key = new StringBuilder("=");
+        for (Map.Entry<String, String> param : new TreeMap<>(params).entrySet()) {
+            key.append(param.getKey()).append('\0').append(param.getValue()).append('\0');
+        }
+        return key.toString();
+    }
+
+    // 상한을 넘으면 임의의 항목 하나를 내보냄 (정확한 LRU 대신 락 없는 근사)
+    private void evictOne() {
+        Iterator<CacheKey> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            entries.remove(it.next());
+        }
+    }
+
+    private static final class Entry {
+        final HttpResponse response;
+        final long expiresAt;
+        Entry(HttpResponse response, long expiresAt) {this.response = response;this.expiresAt = expiresAt;}
+    }
+
+    private static final class CacheKey {
+        final String path;
+        final String params;
+        private final int hash;
+
+        CacheKey(String path, String params) {
+            this.path = path;
+            this.params = params;
+            this.hash = path.hashCode() * 31 + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash && path.equals(other.path) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
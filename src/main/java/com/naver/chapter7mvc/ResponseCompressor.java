@@ -0,0 +1,179 @@
+package com.naver.chapter7mvc;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// 응답 압축 단계 - Accept-Encoding 으로 gzip/deflate 를 고르고, Deflater(네이티브 zlib 상태)는 풀에서 재사용
+class ResponseCompressor {
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int MAX_POOLED = 64;
+
+    private final int defaultLevel;
+    private final int minSize;
+    // gzip 은 헤더/트레일러를 직접 붙이므로 raw deflate(nowrap), deflate 는 zlib 형식
+    private final DeflaterPool gzipDeflaters = new DeflaterPool(true);
+    private final DeflaterPool zlibDeflaters = new DeflaterPool(false);
+
+    ResponseCompressor(int defaultLevel, int minSize) {
+        this.defaultLevel = defaultLevel;
+        this.minSize = minSize;
+    }
+
+    // routeLevel: -1 이면 기본 레벨, 0 이면 압축 안 함
+    HttpResponse apply(HttpRequest request, HttpResponse response, int routeLevel) {
+        if (routeLevel == 0 || response.status != 200 || response.body == null
+                || response.body.length < minSize || response.headers.containsKey("Content-Encoding")
+                || !isCompressible(response.headers.get("Content-Type"))) {
+            return response;
+        }
+        String encoding = negotiate(request.header("accept-encoding"));
+        if (encoding == null) return response;
+        int level = routeLevel < 0 ? defaultLevel : routeLevel;
+
+        // 서버 캐시에 있는 공유 응답은 압축 결과도 같이 보관해 두고 재사용
+        if (response.variants != null) {
+            return response.variants.computeIfAbsent(encoding, e -> compress(response, e, level));
+        }
+        return compress(response, encoding, level);
+    }
+
+    private HttpResponse compress(HttpResponse response, String encoding, int level) {
+        byte[] compressed = "gzip".equals(encoding) ? gzip(response.body, level) : deflate(response.body, level);
+        if (compressed.length >= response.body.length) {
+            return response; // 줄어들지 않으면 원본 그대로
+        }
+        HttpResponse result = new HttpResponse(response.status, compressed);
+        result.headers.putAll(response.headers);
+        result.headers.put("Content-Encoding", encoding);
+        result.headers.put("Vary", "Accept-Encoding");
+        // 본문이 달라지므로 강한 ETag 도 인코딩별로 구분
+        String etag = response.headers.get("ETag");
+        if (etag != null) {
+            result.headers.put("ETag", etag.substring(0, etag.length() - 1) + "-" + encoding + "\"");
+        }
+        return result;
+    }
+
+    // q=0 이 아닌 gzip 을 우선, 없으면 deflate (둘 다 안 되면 null)
+    // '*' 는 이름으로 적히지 않은 인코딩에만 적용 ("gzip;q=0, *" 이면 gzip 은 거부, deflate 는 허용)
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) return null;
+        // null = 언급 없음, TRUE = 허용, FALSE = q=0 으로 명시적 거부
+        Boolean gzip = null;
+        Boolean deflate = null;
+        Boolean any = null;
+        for (String token : acceptEncoding.split(",")) {
+            int semicolon = token.indexOf(';');
+            String coding = (semicolon < 0 ? token : token.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            boolean accepted = semicolon < 0 || !isZeroQuality(token.substring(semicolon + 1));
+            if (coding.equals("gzip")) gzip = accepted;
+            else if (coding.equals("deflate")) deflate = accepted;
+            else if (coding.equals("*")) any = accepted;
+        }
+        boolean anyAccepted = Boolean.TRUE.equals(any);
+        if (gzip != null ? gzip : anyAccepted) return "gzip";
+        if (deflate != null ? deflate : anyAccepted) return "deflate";
+        return null;
+    }
+
+    // ";q=0", ";level=1;q=0.000" 처럼 파라미터 중 q 값이 0 인지
+    private static boolean isZeroQuality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (!p.startsWith("q=")) continue;
+            try {
+                return Double.parseDouble(p.substring(2)) == 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // 텍스트 계열만 압축 (이미지/압축 파일 등은 이미 압축되어 있음)
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) return false;
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.contains("javascript")
+                || type.contains("xml") || type.startsWith("image/svg");
+    }
+
+    private byte[] gzip(byte[] body, int level) {
+        Deflater deflater = gzipDeflaters.acquire(level);
+        try {
+            byte[] out = deflate(deflater, body, GZIP_HEADER, 8);
+            CRC32 crc = new CRC32();
+            crc.update(body, 0, body.length);
+            putIntLE(out, out.length - 8, (int) crc.getValue());
+            putIntLE(out, out.length - 4, body.length);
+            return out;
+        } finally {
+            gzipDeflaters.release(deflater);
+        }
+    }
+
+    private byte[] deflate(byte[] body, int level) {
+        Deflater deflater = zlibDeflaters.acquire(level);
+        try {
+            return deflate(deflater, body, new byte[0], 0);
+        } finally {
+            zlibDeflaters.release(deflater);
+        }
+    }
+
+    // prefix 뒤에 압축 결과를 붙이고 끝에 trailer 바이트만큼 빈 자리를 둔 배열
+    private static byte[] deflate(Deflater deflater, byte[] input, byte[] prefix, int trailer) {
+        deflater.setInput(input);
+        deflater.finish();
+        byte[] out = Arrays.copyOf(prefix, Math.max(64, input.length / 4));
+        int length = prefix.length;
+        while (!deflater.finished()) {
+            if (length == out.length) out = Arrays.copyOf(out, out.length * 2);
+            length += deflater.deflate(out, length, out.length - length);
+        }
+        return Arrays.copyOf(out, length + trailer);
+    }
+
+    private static void putIntLE(byte[] out, int offset, int value) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >>> 8);
+        out[offset + 2] = (byte) (value >>> 16);
+        out[offset + 3] = (byte) (value >>> 24);
+    }
+
+    // 압축 요청마다 Deflater 를 새로 만들면 네이티브 zlib 상태(수백 KB)를 매번 할당/해제하게 됨
+    private static final class DeflaterPool {
+        private final boolean nowrap;
+        private final Queue<Deflater> free = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pooled = new AtomicInteger();
+
+        DeflaterPool(boolean nowrap) {
+            this.nowrap = nowrap;
+        }
+
+        Deflater acquire(int level) {
+            Deflater deflater = free.poll();
+            if (deflater == null) {
+                return new Deflater(level, nowrap);
+            }
+            pooled.decrementAndGet();
+            deflater.setLevel(level); // reset 직후라 다음 deflate 부터 적용
+            return deflater;
+        }
+
+        void release(Deflater deflater) {
+            deflater.reset();
+            if (pooled.incrementAndGet() > MAX_POOLED) {
+                pooled.decrementAndGet();
+                deflater.end(); // 풀이 가득 차면 네이티브 메모리 즉시 해제
+                return;
+            }
+            free.offer(deflater);
+        }
+    }
+}
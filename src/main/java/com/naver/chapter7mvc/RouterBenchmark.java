@@ -0,0 +1,62 @@
+package com.naver.chapter7mvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 래딕스 라우터 매칭 확인 및 2천 개 라우트 기준 매칭 비용 측정 (로컬 측정용)
+public class RouterBenchmark {
+    private static final PathVariableSink IGNORE = (name, value) -> { };
+
+    public static void main(String[] args) {
+        RadixRouter<String> router = new RadixRouter<>();
+        router.add("GET", "/user", "userList");
+        router.add("GET", "/user/{id}", "userById");
+        router.add("DELETE", "/user/{id}", "deleteUser");
+        router.add("GET", "/user/{id}/orders/{orderId}", "userOrder");
+        router.add("GET", "/user/me", "me");
+        router.add("", "/static/**", "static");
+        router.add("GET", "/files/{*path}", "files");
+        router.add("GET", "/a/*/c", "wildcard");
+
+        System.out.println("--- 매칭 확인 ---");
+        for (String[] c : new String[][]{
+                {"GET", "/user"}, {"GET", "/user/me"}, {"GET", "/user/42"}, {"DELETE", "/user/42"},
+                {"GET", "/user/42/orders/7"}, {"POST", "/static/css/app.css"}, {"GET", "/files/a/b/c.txt"},
+                {"GET", "/a/b/c"}, {"POST", "/user/42"}, {"GET", "/nothing"}}) {
+            Map<String, String> vars = new HashMap<>();
+            RadixRouter.Route<String> route = router.match(c[0], c[1], vars::put);
+            String result = route != null ? route.handler + " " + vars : (router.hasPath(c[1]) ? "405" : "404");
+            System.out.println(c[0] + " " + c[1] + " -> " + result);
+        }
+
+        // 2천 개 라우트 (리터럴 1000 + 변수 1000)
+        RadixRouter<String> big = new RadixRouter<>();
+        for (int i = 0; i < 1000; i++) {
+            big.add("GET", "/api/v1/resource" + i + "/items", "list" + i);
+            big.add("GET", "/api/v1/resource" + i + "/items/{id}", "get" + i);
+        }
+        System.out.println("\n--- 라우트 " + big.size() + "개 매칭 비용 ---");
+        String[] literalPaths = new String[1000];
+        String[] variablePaths = new String[1000];
+        for (int i = 0; i < 1000; i++) {
+            literalPaths[i] = "/api/v1/resource" + i + "/items";
+            variablePaths[i] = "/api/v1/resource" + i + "/items/" + (i * 7);
+        }
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("리터럴: %.1f ns/match, 변수: %.1f ns/match%n",
+                    measure(big, literalPaths), measure(big, variablePaths));
+        }
+    }
+
+    private static double measure(RadixRouter<String> router, String[] paths) {
+        int iterations = 2_000_000;
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (router.match("GET", paths[i % paths.length], IGNORE) != null) found++;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found != iterations) throw new IllegalStateException("매칭 실패: " + (iterations - found));
+        return (double) elapsed / iterations;
+    }
+}
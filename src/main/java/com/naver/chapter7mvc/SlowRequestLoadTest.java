@@ -0,0 +1,64 @@
+package com.naver.chapter7mvc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 느린(블로킹) 요청 1만 건을 동시에 넣었을 때 실행 모드별 소요 시간과 플랫폼 스레드 수 비교 (로컬 측정용)
+// 인자: [요청 수] [요청당 블로킹 ms]
+public class SlowRequestLoadTest {
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int millis = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        System.out.println("--- 가상 스레드 지원: " + VirtualThreads.isSupported() + " ---");
+
+        TinyDispatcherServlet dispatcher = new TinyDispatcherServlet(new TinyContainer());
+        Map<String, String> params = new HashMap<>();
+        params.put("millis", String.valueOf(millis));
+
+        // 1. 기존 방식: 호출자 실행 + 플랫폼 스레드 200개 풀
+        ExecutorService platformPool = Executors.newFixedThreadPool(200);
+        dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.CALLER_RUNS, 0);
+        run("CALLER_RUNS + 플랫폼 풀 200", requests, () ->
+                CompletableFuture.supplyAsync(() -> dispatcher.handleAsync(request(params)).join(), platformPool));
+        platformPool.shutdown();
+
+        // 2. 요청당 가상 스레드, DB 풀 보호를 위해 동시 실행 1000 으로 제한
+        dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.VIRTUAL_THREAD, 1000);
+        run("VIRTUAL_THREAD (limit 1000)", requests, () -> dispatcher.handleAsync(request(params)));
+
+        // 3. 요청당 가상 스레드, 사실상 제한 없음
+        dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.VIRTUAL_THREAD, requests);
+        run("VIRTUAL_THREAD (limit " + requests + ")", requests, () -> dispatcher.handleAsync(request(params)));
+
+        dispatcher.configureExecution(TinyDispatcherServlet.ExecutionMode.CALLER_RUNS, 0);
+    }
+
+    private static HttpRequest request(Map<String, String> params) {
+        return HttpRequest.of("/slow", params);
+    }
+
+    private static void run(String label, int requests, Supplier<CompletableFuture<HttpResponse>> submit) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        CompletableFuture<?>[] futures = new CompletableFuture[requests];
+        for (int i = 0; i < requests; i++) {
+            futures[i] = submit.get();
+        }
+        CompletableFuture.allOf(futures).join();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long ok = 0;
+        for (CompletableFuture<?> future : futures) {
+            if (((HttpResponse) future.join()).status == 200) ok++;
+        }
+        System.out.println("[Result] " + label + ": " + elapsed + "ms, 성공 " + ok + "/" + requests
+                + ", 최대 플랫폼 스레드 " + threads.getPeakThreadCount());
+    }
+}
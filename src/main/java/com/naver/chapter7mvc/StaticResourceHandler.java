@@ -0,0 +1,270 @@
+package com.naver.chapter7mvc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 디렉터리의 정적 파일을 힙을 거치지 않고 보내는 핸들러 (HTTP 서버가 FileChannel.transferTo = sendfile 로 전송)
+// GET <prefix>{*path} 라우트로 등록됨
+class StaticResourceHandler {
+    private static final int MAX_OPEN_FILES = 256;
+    // 캐시된 파일의 변경 여부는 이 간격마다만 다시 확인 (핫 에셋마다 stat 호출을 하지 않음)
+    private static final long REVALIDATE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+
+    static {
+        CONTENT_TYPES.put("html", "text/html; charset=utf-8");
+        CONTENT_TYPES.put("css", "text/css; charset=utf-8");
+        CONTENT_TYPES.put("js", "application/javascript; charset=utf-8");
+        CONTENT_TYPES.put("json", "application/json; charset=utf-8");
+        CONTENT_TYPES.put("txt", "text/plain; charset=utf-8");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("jpg", "image/jpeg");
+        CONTENT_TYPES.put("jpeg", "image/jpeg");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+    }
+
+    private final Path root;
+    // 자주 쓰는 파일의 열린 채널 캐시 (상한을 넘으면 임의의 항목 하나를 내보냄)
+    private final Map<Path, OpenFile> openFiles = new ConcurrentHashMap<>();
+
+    StaticResourceHandler(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    // 라우터가 {*path} 로 캡처해 퍼센트 디코딩한 상대 경로의 파일을 응답
+    HttpResponse serve(HttpRequest request) throws IOException {
+        String relative = request.pathVariable("path");
+        Path file;
+        try {
+            file = relative == null ? null : root.resolve(relative).normalize();
+        } catch (InvalidPathException e) {
+            return HttpResponse.error(404);
+        }
+        // 디코딩 후 normalize 한 경로로 검사 - %2e%2e/ 같은 인코딩된 ../ 로 루트 밖을 가리키는 요청 차단
+        if (file == null || !file.startsWith(root)) {
+            return HttpResponse.error(404);
+        }
+        // 디렉터리 여부는 open 에서 파일 메타데이터와 함께 확인 (캐시 적중이면 stat 호출 없음)
+        OpenFile open = open(file);
+        if (open == null) {
+            return HttpResponse.error(404);
+        }
+
+        String ifModifiedSince = request.header("if-modified-since");
+        if (ifModifiedSince != null && !isModifiedSince(open, ifModifiedSince)) {
+            open.release();
+            return HttpResponse.notModified().header("Last-Modified", open.lastModified);
+        }
+
+        long start = 0;
+        long end = open.size - 1;
+        int status = 200;
+        String range = request.header("range");
+        if (range != null) {
+            long[] bounds = parseRange(range, open.size);
+            if (bounds == null) {
+                open.release();
+                return HttpResponse.error(416).header("Content-Range", "bytes */" + open.size);
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                status = 206;
+            }
+        }
+
+        HttpResponse response = HttpResponse.file(status, new FileRegion(open, start, end - start + 1));
+        response.header("Content-Type", contentType(file));
+        response.header("Last-Modified", open.lastModified);
+        response.header("Accept-Ranges", "bytes");
+        if (status == 206) {
+            response.header("Content-Range", "bytes " + start + "-" + end + "/" + open.size);
+        }
+        return response;
+    }
+
+    // "bytes=a-b", "bytes=a-", "bytes=-n" 하나만 지원 (여러 구간이나 잘못된 구간이면 전체 응답 = 빈 배열, 만족 불가면 null)
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return new long[0];
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) return null;
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                // 끝이 시작보다 앞인 구간은 문법 오류 - 무시하고 전체 응답 (RFC 9110 14.2)
+                if (last < start) return new long[0];
+                end = Math.min(last, size - 1);
+            }
+            // 문법은 맞지만 파일 밖에서 시작하는 구간만 416
+            if (start >= size) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    // 캐시된 채널을 참조 카운트를 올려 빌려줌 (파일이 바뀌었으면 새로 엶)
+    private OpenFile open(Path file) throws IOException {
+        long now = System.nanoTime();
+        OpenFile cached = openFiles.get(file);
+        if (cached != null && now - cached.checkedAt < REVALIDATE_NANOS && cached.retain()) {
+            return cached;
+        }
+        OpenFile fresh;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                evict(file);
+                return null;
+            }
+            long modified = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+            if (cached != null && cached.modifiedMillis == modified && cached.size == size && cached.retain()) {
+                cached.checkedAt = now;
+                return cached;
+            }
+            fresh = new OpenFile(FileChannel.open(file, StandardOpenOption.READ), size, modified, now);
+        } catch (NoSuchFileException e) {
+            evict(file);
+            return null;
+        }
+        fresh.retain();
+        if (openFiles.size() >= MAX_OPEN_FILES) {
+            evictOne();
+        }
+        OpenFile previous = openFiles.put(file, fresh);
+        if (previous != null) previous.release();
+        return fresh;
+    }
+
+    private void evict(Path file) {
+        OpenFile removed = openFiles.remove(file);
+        if (removed != null) removed.release();
+    }
+
+    private void evictOne() {
+        Iterator<Path> it = openFiles.keySet().iterator();
+        if (it.hasNext()) evict(it.next());
+    }
+
+    private static boolean isModifiedSince(OpenFile open, String header) {
+        try {
+            long since = ZonedDateTime.parse(header, HTTP_DATE).toInstant().toEpochMilli();
+            // HTTP 날짜는 초 단위
+            return open.modifiedMillis / 1000 > since / 1000;
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String type = dot < 0 ? null : CONTENT_TYPES.get(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+        return type != null ? type : "application/octet-stream";
+    }
+
+    // 캐시에 있는 열린 파일 - 캐시 자신과 전송 중인 응답이 참조를 들고 있고, 모두 놓으면 닫힘
+    static final class OpenFile {
+        final FileChannel channel;
+        final long size;
+        final long modifiedMillis;
+        final String lastModified;
+        volatile long checkedAt;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        OpenFile(FileChannel channel, long size, long modifiedMillis, long checkedAt) {
+            this.channel = channel;
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+            this.lastModified = HTTP_DATE.format(Instant.ofEpochMilli(modifiedMillis).atZone(ZoneOffset.UTC));
+            this.checkedAt = checkedAt;
+        }
+
+        // 이미 닫힌(참조 0) 파일이면 false
+        boolean retain() {
+            int current;
+            do {
+                current = refs.get();
+                if (current == 0) return false;
+            } while (!refs.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                try { channel.close(); } catch (IOException ignored) { }
+            }
+        }
+    }
+}
+
+// 응답 본문으로 보낼 파일 구간 (HTTP 서버가 소켓으로 직접 전송한 뒤 release)
+final class FileRegion {
+    private final StaticResourceHandler.OpenFile file;
+    private long position;
+    private final long end;
+    final long count;
+
+    FileRegion(StaticResourceHandler.OpenFile file, long position, long count) {
+        this.file = file;
+        this.position = position;
+        this.end = position + count;
+        this.count = count;
+    }
+
+    // 소켓이 받아 주는 만큼 전송 - 모두 보냈으면 true
+    boolean transferTo(WritableByteChannel target) throws IOException {
+        while (position < end) {
+            long n = file.channel.transferTo(position, end - position, target);
+            if (n <= 0) return false;
+            position += n;
+        }
+        return true;
+    }
+
+    // 인프로세스 호출(service)용
+    byte[] readAll() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) count);
+        while (buffer.hasRemaining()) {
+            if (file.channel.read(buffer, position + buffer.position()) < 0) break;
+        }
+        return buffer.array();
+    }
+
+    void release() {
+        file.release();
+    }
+}
@@ -0,0 +1,56 @@
+package com.naver.chapter7mvc;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// 수백만 행 내보내기를 청크 응답으로 받으면서 서버 힙 사용량이 응답 크기와 무관하게 유지되는지 확인 (로컬 측정용)
+// 인자: [행 수] [/export 또는 /export/sink]
+public class StreamingExportTest {
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        String path = args.length > 1 ? args[1] : "/export";
+
+        TinyDispatcherServlet dispatcher = new TinyDispatcherServlet(new TinyContainer());
+        TinyHttpServer server = new TinyHttpServer(dispatcher, 0, 2);
+        server.start();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        long[] peak = {baseline};
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak[0] = Math.max(peak[0], memory.getHeapMemoryUsage().getUsed());
+                try { Thread.sleep(5); } catch (InterruptedException e) { return; }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        long bytes = 0;
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + "?rows=" + rows + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                bytes += n;
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        sampler.interrupt();
+        server.stop();
+
+        System.out.println("[Result] " + path + " " + rows + "행: 수신 " + (bytes >> 20) + "MB, "
+                + elapsed + "ms, 최대 힙 증가 " + ((peak[0] - baseline) >> 20) + "MB");
+    }
+}
@@ -0,0 +1,576 @@
+package com.naver.chapter7mvc;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// TinyDispatcherServlet 앞단의 내장 HTTP/1.1 서버 (NIO Selector 기반 리액터, keep-alive + 파이프라이닝)
+class TinyHttpServer {
+    // 연결 하나에서 응답을 기다리는 파이프라인 요청 수 상한 (넘으면 읽기를 멈춤)
+    private static final int MAX_IN_FLIGHT = 32;
+    // 요청 크기 상한 - 요청 라인 + 헤더는 풀 버퍼(16KB) 하나에 들어가야 하고(넘으면 413),
+    // 본문은 이 크기까지 연결 전용 힙 버퍼를 키워서 받음 (넘으면 413)
+    static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] COLON_SP = {':', ' '};
+    private static final byte[] HTTP_VERSION = "HTTP/1.1 ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_LENGTH = "Content-Length: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRANSFER_ENCODING_CHUNKED = "Transfer-Encoding: chunked\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONNECTION_KEEP_ALIVE = "Connection: keep-alive\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONNECTION_CLOSE = "Connection: close\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final String FORM_URLENCODED = "application/x-www-form-urlencoded";
+    private static final String[] KNOWN_METHODS = {"GET", "POST", "PUT", "DELETE", "HEAD", "PATCH", "OPTIONS"};
+    private static final int[] NO_RANGES = new int[0];
+    // 상태 코드별 "200 OK\r\n" 바이트 캐시
+    private static final Map<Integer, byte[]> STATUS_LINES = new ConcurrentHashMap<>();
+
+    private final TinyDispatcherServlet dispatcher;
+    private final int port;
+    private final Reactor[] reactors;
+    private final BufferPool bufferPool = BufferPool.SHARED;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    public TinyHttpServer(TinyDispatcherServlet dispatcher, int port, int reactorCount) {
+        this.dispatcher = dispatcher;
+        this.port = port;
+        this.reactors = new Reactor[reactorCount];
+    }
+
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        running = true;
+        for (int i = 0; i < reactors.length; i++) {
+            reactors[i] = new Reactor();
+            Thread thread = new Thread(reactors[i], "http-reactor-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "http-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        System.out.println("--- Tiny HTTP Server 시작 ( Port: " + getPort() + ", Reactor: " + reactors.length + ")");
+    }
+
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return port;
+        }
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+        }
+        for (Reactor reactor : reactors) {
+            reactor.selector.wakeup();
+        }
+    }
+
+    // 연결 수락만 담당하고, 연결은 리액터에 라운드로빈으로 분배
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[Math.floorMod(next++, reactors.length)].register(channel);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.out.println("[HTTP Error] accept 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private final class Reactor implements Runnable {
+        final Selector selector;
+        final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        // 다른 스레드에서 끝난 응답을 리액터 스레드로 넘기는 작업 큐
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        // 헤더 파싱용 작업 공간 (리액터 스레드 전용)
+        final byte[] scratch = new byte[BufferPool.SHARED.bufferSize()];
+        // 이번 select 가 깨어난 시각 - 이때 읽은 바이트의 도착 시각으로 씀
+        long selectedAt;
+
+        Reactor() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            pending.offer(channel);
+            selector.wakeup();
+        }
+
+        void execute(Runnable task) {
+            tasks.offer(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    selectedAt = System.nanoTime();
+                    SocketChannel channel;
+                    while ((channel = pending.poll()) != null) {
+                        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                        key.attach(new Connection(channel, key, this));
+                    }
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) connection.onReadable();
+                            if (key.isValid() && key.isWritable()) connection.flush();
+                        } catch (IOException | RuntimeException e) {
+                            connection.close();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("[HTTP Error] 리액터 종료: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) ((Connection) key.attachment()).close();
+                }
+                try { selector.close(); } catch (IOException ignored) { }
+            }
+        }
+    }
+
+    // 연결 하나의 상태 (리액터 스레드에서만 접근하므로 락 없음)
+    private final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final Reactor reactor;
+        // 쓰기 모드로 보관 (처리할 때만 flip)
+        ByteBuffer in;
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        // 요청 순서대로 응답 자리 - 먼저 끝난 응답도 앞선 응답이 나갈 때까지 대기 (파이프라이닝 순서 보장)
+        final ArrayDeque<Slot> inFlight = new ArrayDeque<>();
+        // 지금 청크로 흘려보내는 중인 응답 본문 (끝날 때까지 뒤따르는 응답은 대기)
+        ChunkedBody stream;
+        // 지금 transferTo 로 보내는 중인 파일 구간
+        FileRegion file;
+        // 아직 디스패치하지 않은 요청 바이트가 처음 도착한 시각 (없으면 0)
+        long firstByteAt;
+        boolean lastRequestSeen;
+        boolean closeAfterFlush;
+        boolean closed;
+
+        Connection(SocketChannel channel, SelectionKey key, Reactor reactor) {
+            this.channel = channel;
+            this.key = key;
+            this.reactor = reactor;
+        }
+
+        void onReadable() throws IOException {
+            if (in == null) in = bufferPool.acquire();
+            int n = channel.read(in);
+            if (n < 0) {
+                close();
+                return;
+            }
+            if (n > 0 && firstByteAt == 0) firstByteAt = reactor.selectedAt;
+            process();
+        }
+
+        void process() throws IOException {
+            if (in != null) {
+                in.flip();
+                // 파이프라이닝: 버퍼에 들어와 있는 요청을 순서대로 모두 디스패치
+                while (!lastRequestSeen && inFlight.size() < MAX_IN_FLIGHT) {
+                    HttpRequest request;
+                    try {
+                        request = parse(in, reactor.scratch);
+                    } catch (IllegalArgumentException e) {
+                        inFlight.add(new Slot(false, HttpResponse.error(400)));
+                        lastRequestSeen = true;
+                        break;
+                    }
+                    if (request == null) break;
+                    if (firstByteAt != 0) request.receivedAt = firstByteAt;
+                    // 버퍼에 남은 바이트는 다음 요청의 것으로 이미 도착해 있었음
+                    if (!in.hasRemaining()) firstByteAt = 0;
+                    lastRequestSeen = !request.keepAlive;
+                    dispatch(request);
+                }
+
+                if (!in.hasRemaining()) {
+                    // 유휴 keep-alive 연결은 버퍼를 들고 있지 않음
+                    bufferPool.release(in);
+                    in = null;
+                } else if (in.position() == 0 && in.limit() == in.capacity() && inFlight.isEmpty()) {
+                    // 풀 버퍼가 가득 찼는데 요청이 끝나지 않음 - 헤더는 다 왔고 본문이 상한 이내면 그만큼 버퍼를 키움
+                    int required = requiredBytes(in, reactor.scratch);
+                    if (required > in.capacity()) {
+                        ByteBuffer larger = ByteBuffer.allocate(required);
+                        larger.put(in);
+                        bufferPool.release(in);
+                        in = larger;
+                    } else {
+                        inFlight.add(new Slot(false, HttpResponse.error(413)));
+                        lastRequestSeen = true;
+                        in.clear();
+                    }
+                } else {
+                    in.compact();
+                }
+            }
+            drain();
+            flush();
+        }
+
+        // 디스패처 실행 모드에 따라 바로 끝나거나(caller-runs) 다른 스레드에서 끝남(가상 스레드)
+        private void dispatch(HttpRequest request) {
+            Slot slot = new Slot(request.keepAlive, null);
+            slot.head = "HEAD".equals(request.method);
+            inFlight.add(slot);
+            CompletableFuture<HttpResponse> future = dispatcher.handleAsync(request);
+            if (future.isDone()) {
+                slot.response = future.exceptionally(e -> HttpResponse.error(500)).join();
+                return;
+            }
+            future.whenComplete((response, error) -> reactor.execute(() -> {
+                slot.response = response != null ? response : HttpResponse.error(500);
+                if (closed) {
+                    discard(slot.response);
+                    return;
+                }
+                try {
+                    process();
+                } catch (IOException | RuntimeException e) {
+                    close();
+                }
+            }));
+        }
+
+        // 앞에서부터 완료된 응답만 순서대로 직렬화
+        private void drain() {
+            Slot slot;
+            while (stream == null && file == null && (slot = inFlight.peek()) != null && slot.response != null) {
+                inFlight.poll();
+                boolean withBody = encode(slot.response, slot.keepAlive, slot.head);
+                if (!slot.keepAlive) closeAfterFlush = true;
+                if (!withBody) {
+                    discard(slot.response);
+                    continue;
+                }
+                if (slot.response.chunked != null) {
+                    stream = slot.response.chunked;
+                    stream.setListener(() -> reactor.execute(this::onStreamData));
+                }
+                file = slot.response.file;
+            }
+        }
+
+        // 생산자 스레드가 청크를 넣었거나 끝냈을 때 (리액터 스레드에서 실행)
+        private void onStreamData() {
+            if (closed) return;
+            try {
+                flush();
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        void flush() throws IOException {
+            while (true) {
+                while (!out.isEmpty()) {
+                    ByteBuffer buffer = out.peek();
+                    channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_WRITE); // 소켓 버퍼가 찼으니 쓸 수 있을 때 다시
+                        return;
+                    }
+                    bufferPool.release(out.poll());
+                }
+                if (file != null) {
+                    // 헤더가 다 나간 뒤 파일은 커널에서 소켓으로 바로 복사 (힙을 거치지 않음)
+                    if (!file.transferTo(channel)) {
+                        key.interestOps(SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    file.release();
+                    file = null;
+                    drain();
+                    continue;
+                }
+                if (stream == null || !pumpStream()) break;
+            }
+            if (closed) return;
+            if (stream != null) {
+                // 다음 청크를 기다리는 중 - 생산자가 채우면 리스너가 다시 깨움
+                key.interestOps(0);
+            } else if (closeAfterFlush) {
+                close();
+            } else {
+                // 응답 대기 중인 요청이 너무 많으면 읽기를 멈춰 클라이언트에 배압을 검
+                boolean canRead = inFlight.size() < MAX_IN_FLIGHT && !lastRequestSeen && (in == null || in.hasRemaining());
+                key.interestOps(canRead ? SelectionKey.OP_READ : 0);
+            }
+        }
+
+        // 소켓이 비었을 때만 청크를 몇 개씩 가져옴 (생산자와 소켓 사이에 버퍼가 쌓이지 않음)
+        private boolean pumpStream() {
+            ByteBuffer chunk;
+            while (out.size() < 2 && (chunk = stream.poll()) != null) {
+                out.add(chunk);
+            }
+            if (!out.isEmpty()) return true;
+            if (!stream.isComplete()) return false;
+            if (stream.isFailed()) {
+                // 헤더가 이미 나갔으므로 종료 청크 없이 끊어 잘린 응답임을 알림
+                close();
+                return false;
+            }
+            stream = null;
+            drain();
+            return !out.isEmpty();
+        }
+
+        // 응답을 문자열 결합 없이 풀링된 버퍼에 바로 바이트로 기록 - 본문을 보내야 하면 true
+        // HEAD 는 Content-Length 까지 GET 과 같게 쓰고 본문만 생략, 1xx/204/304 는 길이 헤더도 본문도 없음
+        // (keep-alive/파이프라이닝 연결에서 남는 본문 바이트가 다음 응답으로 읽히지 않도록)
+        boolean encode(HttpResponse response, boolean keepAlive, boolean head) {
+            boolean bodiless = response.status < 200 || response.status == 204 || response.status == 304;
+            ByteBuffer buffer = bufferPool.acquire();
+            buffer.put(HTTP_VERSION);
+            buffer.put(STATUS_LINES.computeIfAbsent(response.status, s ->
+                    (s + " " + HttpResponse.reason(s) + "\r\n").getBytes(StandardCharsets.US_ASCII)));
+            for (Map.Entry<String, String> header : response.headers.entrySet()) {
+                buffer = putAscii(buffer, header.getKey());
+                buffer = putBytes(buffer, COLON_SP);
+                buffer = putAscii(buffer, header.getValue());
+                buffer = putBytes(buffer, CRLF);
+            }
+            if (response.chunked != null && !bodiless) {
+                buffer = putBytes(buffer, TRANSFER_ENCODING_CHUNKED);
+            } else if (!bodiless) {
+                buffer = putBytes(buffer, CONTENT_LENGTH);
+                buffer = putDecimal(buffer, response.file != null ? response.file.count : response.body.length);
+                buffer = putBytes(buffer, CRLF);
+            }
+            buffer = putBytes(buffer, keepAlive ? CONNECTION_KEEP_ALIVE : CONNECTION_CLOSE);
+            buffer = putBytes(buffer, CRLF);
+            boolean withBody = !head && !bodiless;
+            if (withBody && response.body != null) buffer = putBytes(buffer, response.body);
+            buffer.flip();
+            out.add(buffer);
+            return withBody;
+        }
+
+        // 현재 버퍼가 차면 다음 풀 버퍼로 이어서 기록
+        private ByteBuffer putBytes(ByteBuffer buffer, byte[] bytes) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) buffer = next(buffer);
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+            return buffer;
+        }
+
+        private ByteBuffer putAscii(ByteBuffer buffer, String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (!buffer.hasRemaining()) buffer = next(buffer);
+                buffer.put((byte) s.charAt(i));
+            }
+            return buffer;
+        }
+
+        private ByteBuffer putDecimal(ByteBuffer buffer, long value) {
+            if (buffer.remaining() < 19) buffer = next(buffer);
+            long divisor = 1;
+            while (value / divisor >= 10) divisor *= 10;
+            for (; divisor > 0; divisor /= 10) {
+                buffer.put((byte) ('0' + (value / divisor) % 10));
+            }
+            return buffer;
+        }
+
+        private ByteBuffer next(ByteBuffer full) {
+            full.flip();
+            out.add(full);
+            return bufferPool.acquire();
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            key.cancel();
+            try { channel.close(); } catch (IOException ignored) { }
+            if (in != null) {
+                bufferPool.release(in);
+                in = null;
+            }
+            ByteBuffer buffer;
+            while ((buffer = out.poll()) != null) bufferPool.release(buffer);
+            if (stream != null) stream.cancel();
+            if (file != null) file.release();
+            // 아직 나가지 못한 응답도 정리 (스트림 생산자가 큐 앞에서 영원히 기다리지 않도록)
+            for (Slot slot : inFlight) {
+                if (slot.response != null) discard(slot.response);
+            }
+        }
+
+        // 본문을 보내지 않을 응답 - 생산 중인 스트림은 멈추고 파일 참조는 돌려줌
+        private void discard(HttpResponse response) {
+            if (response.chunked != null) response.chunked.cancel();
+            if (response.file != null) response.file.release();
+        }
+    }
+
+    private static final class Slot {
+        final boolean keepAlive;
+        // HEAD 요청 - 헤더는 GET 과 같게, 본문은 보내지 않음
+        boolean head;
+        HttpResponse response;
+        Slot(boolean keepAlive, HttpResponse response) {this.keepAlive = keepAlive;this.response = response;}
+    }
+
+    // 버퍼의 position 부터 완성된 요청 하나를 파싱 (아직 다 안 들어왔으면 null, position 유지)
+    // 헤더/파라미터는 맵으로 만들지 않고, 요청 원문 바이트 하나 위의 지연 뷰로 넘김
+    static HttpRequest parse(ByteBuffer buffer, byte[] scratch) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int headerEnd = headerEnd(buffer, start, limit);
+        if (headerEnd < 0) return null;
+
+        int headLength = headerEnd - start;
+        // 본문 때문에 키운 버퍼에서도 헤더는 풀 버퍼 크기까지만
+        if (headLength > scratch.length) throw new IllegalArgumentException("헤더가 너무 큼");
+        buffer.get(start, scratch, 0, headLength);
+
+        // 요청 라인: METHOD SP TARGET SP VERSION
+        int lineEnd = indexOf(scratch, 0, headLength, '\r');
+        if (lineEnd < 0) lineEnd = headLength;
+        int sp1 = indexOf(scratch, 0, lineEnd, ' ');
+        int sp2 = sp1 < 0 ? -1 : indexOf(scratch, sp1 + 1, lineEnd, ' ');
+        if (sp1 <= 0 || sp2 < 0) throw new IllegalArgumentException("잘못된 요청 라인");
+        boolean http11 = lineEnd - sp2 - 1 == 8 && scratch[lineEnd - 1] == '1';
+
+        // 헤더 줄 형식만 확인 (값은 필요할 때 꺼냄)
+        int headersStart = Math.min(lineEnd + 2, headLength);
+        for (int pos = headersStart; pos < headLength; ) {
+            int end = LazyHeaderMap.indexOf(scratch, pos, headLength, '\r');
+            if (indexOf(scratch, pos, end, ':') < 0) throw new IllegalArgumentException("잘못된 헤더");
+            pos = end + 2;
+        }
+
+        int bodyStart = headerEnd + 4;
+        int contentLength = 0;
+        long lengthRange = LazyHeaderMap.locate(scratch, headersStart, headLength, "content-length");
+        if (lengthRange >= 0) {
+            contentLength = parseLength(scratch, (int) (lengthRange >>> 32), (int) lengthRange);
+        }
+        if (bodyStart + contentLength > limit) return null;
+
+        // 헤더 + 본문을 담는 요청당 유일한 바이트 배열 (버퍼는 다음 요청에 재사용되므로 복사)
+        byte[] raw = new byte[headLength + contentLength];
+        System.arraycopy(scratch, 0, raw, 0, headLength);
+        if (contentLength > 0) buffer.get(bodyStart, raw, headLength, contentLength);
+        buffer.position(bodyStart + contentLength);
+
+        int q = indexOf(raw, sp1 + 1, sp2, '?');
+        String method = method(raw, sp1);
+        String path = new String(raw, sp1 + 1, (q < 0 ? sp2 : q) - sp1 - 1, StandardCharsets.US_ASCII);
+        LazyHeaderMap headers = new LazyHeaderMap(raw, headersStart, headLength);
+
+        CharSequence contentType = contentLength > 0 ? headers.view("content-type") : null;
+        boolean form = contentType != null && AsciiSequence.startsWithIgnoreCase(contentType, FORM_URLENCODED);
+        int[] ranges;
+        if (q >= 0 && form) ranges = new int[]{q + 1, sp2, headLength, headLength + contentLength};
+        else if (q >= 0) ranges = new int[]{q + 1, sp2};
+        else if (form) ranges = new int[]{headLength, headLength + contentLength};
+        else ranges = NO_RANGES;
+
+        CharSequence connection = headers.view("connection");
+        boolean keepAlive = http11
+                ? connection == null || !AsciiSequence.equalsIgnoreCase(connection, "close")
+                : connection != null && AsciiSequence.equalsIgnoreCase(connection, "keep-alive");
+        return new HttpRequest(method, path, headers, new LazyParamMap(raw, ranges), keepAlive);
+    }
+
+    // 빈 줄(CRLFCRLF) 시작 위치 (없으면 -1)
+    private static int headerEnd(ByteBuffer buffer, int start, int limit) {
+        for (int i = start; i + 3 < limit; i++) {
+            if (buffer.get(i) == '\r' && buffer.get(i + 1) == '\n' && buffer.get(i + 2) == '\r' && buffer.get(i + 3) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 버퍼 맨 앞 요청을 다 받는 데 필요한 바이트 수 (헤더가 아직 안 끝났거나 본문이 상한을 넘으면 -1 = 413)
+    private static int requiredBytes(ByteBuffer buffer, byte[] scratch) {
+        int start = buffer.position();
+        int headerEnd = headerEnd(buffer, start, buffer.limit());
+        if (headerEnd < 0) return -1;
+        int headLength = headerEnd - start;
+        buffer.get(start, scratch, 0, headLength);
+        int lineEnd = indexOf(scratch, 0, headLength, '\r');
+        int headersStart = lineEnd < 0 ? headLength : Math.min(lineEnd + 2, headLength);
+        long lengthRange = LazyHeaderMap.locate(scratch, headersStart, headLength, "content-length");
+        if (lengthRange < 0) return -1;
+        int contentLength = parseLength(scratch, (int) (lengthRange >>> 32), (int) lengthRange);
+        return contentLength > MAX_BODY_BYTES ? -1 : headLength + 4 + contentLength;
+    }
+
+    // 자주 쓰는 메서드 이름은 상수 문자열을 재사용
+    private static String method(byte[] raw, int length) {
+        CharSequence name = new AsciiSequence(raw, 0, length);
+        for (String known : KNOWN_METHODS) {
+            if (CharSequence.compare(known, name) == 0) return known;
+        }
+        return name.toString();
+    }
+
+    private static int parseLength(byte[] raw, int start, int end) {
+        while (end > start && raw[end - 1] == ' ') end--;
+        if (start == end || end - start > 9) throw new IllegalArgumentException("잘못된 Content-Length");
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            if (raw[i] < '0' || raw[i] > '9') throw new IllegalArgumentException("잘못된 Content-Length");
+            value = value * 10 + (raw[i] - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == c) return i;
+        }
+        return -1;
+    }
+}
@@ -1,15 +1,53 @@
 package com.naver.chapter7mvc;
 
+import java.io.IOException;
 import java.lang.annotation.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 
 @Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE) @interface MyController {}
-@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.METHOD) @interface MyRequestMapping { String value();}
+@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.METHOD) @interface MyRequestMapping {
+    String value();
+    // 비어 있으면 모든 HTTP 메서드 허용
+    String method() default "";
+    // CompletableFuture 를 돌려주는 핸들러가 이 시간 안에 끝나지 않으면 503
+    long timeoutMillis() default 30_000;
+    // 응답 압축 레벨 (-1: 디스패처 기본값, 0: 압축 안 함, 1~9: zlib 레벨)
+    int compressionLevel() default -1;
+    // 과부하 시 차단 우선순위 (CRITICAL 은 차단하지 않음)
+    RequestPriority priority() default RequestPriority.NORMAL;
+}
+// GET 응답에 Cache-Control/ETag 를 붙이고 If-None-Match 가 맞으면 304
+@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.METHOD) @interface MyCacheControl {
+    // 0 이면 no-cache (매번 ETag 로 재검증)
+    long maxAge() default 0;
+    boolean etag() default true;
+    // 0 보다 크면 (경로, 파라미터) 별로 직렬화된 응답을 이 시간 동안 서버에 보관하고 컨트롤러를 호출하지 않음
+    long serverCacheMillis() default 0;
+    int maxEntries() default 1024;
+}
 @Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE) @interface MyComponent {}
 
 @MyComponent
@@ -22,6 +60,7 @@ class HelloService {
 @MyController
 class UserController {
     private final HelloService helloService;
+    private final AtomicInteger noticeReads = new AtomicInteger();
 
     public UserController(HelloService helloService) {
         this.helloService = helloService;
@@ -32,16 +71,88 @@ class UserController {
         return "Response User ID: " + id + ", Data: {name: Tiny User, age: 25}";
     }
 
+    @MyRequestMapping(value = "/user/{id}", method = "GET")
+    public String getUserById(long id, boolean detail) {
+        return "Response User ID: " + id + " (path variable, detail=" + detail + ")";
+    }
+
+    // DB 조회처럼 스레드를 붙잡는 느린 작업 흉내
+    @MyRequestMapping("/slow")
+    public String slow(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return "[Response] " + millis + "ms 작업 완료";
+    }
+
+    // 로드밸런서 헬스 체크 - 과부하 중에도 응답해야 함
+    @MyRequestMapping(value = "/health", priority = RequestPriority.CRITICAL)
+    public String health() {
+        return "UP";
+    }
+
+    // 반복 폴링되는 공지 - 5초 동안은 서버 캐시에서 바로 응답
+    @MyRequestMapping(value = "/notice", method = "GET")
+    @MyCacheControl(maxAge = 10, serverCacheMillis = 5000)
+    public String notice() {
+        return "[Response] 공지 (조회 " + noticeReads.incrementAndGet() + "회차에 생성)";
+    }
+
+    // 반복이 많은 JSON - 압축률이 높음 (빠른 레벨 1 사용)
+    @MyRequestMapping(value = "/report", compressionLevel = 1)
+    public String report(int rows) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i).append(",\"name\":\"Tiny User\",\"age\":25,\"active\":true}");
+        }
+        return json.append(']').toString();
+    }
+
     @MyRequestMapping("/greet")
     public String greet(String name) {
         return "[Response] Service Message: " + helloService.getGreeting(name);
     }
+
+    // 비동기 핸들러: 요청 스레드는 바로 반환되고, future 가 끝나면 응답이 나감
+    @MyRequestMapping(value = "/greet/async", timeoutMillis = 1000)
+    public CompletableFuture<String> greetAsync(String name, int delay) {
+        return CompletableFuture.supplyAsync(() -> "[Async Response] " + helloService.getGreeting(name),
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    }
+
+    // 대용량 내보내기: Stream 을 돌려주면 한 줄씩 청크로 흘려보냄 (전체를 메모리에 만들지 않음)
+    @MyRequestMapping("/export")
+    public Stream<String> export(int rows) {
+        return IntStream.range(0, rows).mapToObj(i -> "user-" + i + ",Tiny User,25");
+    }
+
+    // ResponseSink 를 받으면 핸들러가 직접 조각 단위로 씀
+    @MyRequestMapping("/export/sink")
+    public void exportToSink(int rows, ResponseSink sink) {
+        for (int i = 0; i < rows; i++) {
+            sink.write("user-" + i + ",Tiny User,25\n");
+        }
+    }
 }
 
 class TinyDispatcherServlet {
-    // URL 경로와 실행할 메서드 정보를 매핑하여 저장
-    private final Map<String, HandlerMethod> handlerMapping = new HashMap<>();
+    // 요청을 어느 스레드에서 실행할지
+    enum ExecutionMode {
+        // 호출한 스레드(HTTP 리액터 등)에서 바로 실행
+        CALLER_RUNS,
+        // 요청마다 가상 스레드 하나 - 블로킹 컨트롤러가 플랫폼 스레드를 잡지 않음
+        VIRTUAL_THREAD
+    }
+
+    // URL 패턴과 실행할 메서드 정보를 래딕스 트리에 저장 (/user/{id} 같은 경로 변수 지원)
+    private final RadixRouter<HandlerMethod> handlerMapping = new RadixRouter<>();
     private final TinyContainer container;
+    private volatile Execution execution = new Execution(ExecutionMode.CALLER_RUNS, null, null);
+    // 스트리밍 응답 생산자 실행기 (처음 쓸 때 생성) - 리액터 스레드가 생산자를 기다리며 막히지 않도록 분리
+    private volatile ExecutorService streamExecutor;
+    // null 이면 압축 단계 없음
+    private volatile ResponseCompressor compressor;
+    // null 이면 입장 제어 없음
+    private volatile AdmissionController admission;
 
     public TinyDispatcherServlet(TinyContainer container) {
         this.container = container;
@@ -55,46 +166,283 @@ class TinyDispatcherServlet {
             if(clazz.isAnnotationPresent(MyController.class)){
                 for (Method method : clazz.getDeclaredMethods()){
                     if(method.isAnnotationPresent(MyRequestMapping.class)){
-                        String url = method.getAnnotation(MyRequestMapping.class).value();
-                        handlerMapping.put(url, new HandlerMethod(bean, method));
-                        System.out.println(" -> [MVC] 매핑 등록 : " + url + " = > " + method.getName());
+                        MyRequestMapping mapping = method.getAnnotation(MyRequestMapping.class);
+                        String url = mapping.value();
+                        handlerMapping.add(mapping.method(), url, new HandlerMethod(bean, method));
+                        System.out.println(" -> [MVC] 매핑 등록 : " + (mapping.method().isEmpty() ? "" : mapping.method() + " ") + url + " = > " + method.getName());
                     }
                 }
             }
         }
     }
 
+    // urlPrefix 아래 요청을 directory 의 정적 파일로 응답 (예: "/static/" -> ./public)
+    public void addResourceHandler(String urlPrefix, Path directory) {
+        StaticResourceHandler resources = new StaticResourceHandler(directory);
+        try {
+            Method serve = StaticResourceHandler.class.getDeclaredMethod("serve", HttpRequest.class);
+            handlerMapping.add("GET", urlPrefix + "{*path}", new HandlerMethod(resources, serve));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        System.out.println(" -> [MVC] 정적 리소스 등록 : GET " + urlPrefix + "** = > " + directory.toAbsolutePath());
+    }
+
     // 실제 HTTP 요청을 처리하는 핵심 메서드
     public void service(String url, Map<String, String> params) {
         System.out.println("\n[Request] Incoming URL:" + url + ", Param: " + params);
 
-        HandlerMethod handlerMethod = handlerMapping.get(url);
-        if(handlerMethod == null){
-            System.out.println("[Response] 404 Not Found");
-            return;
+        HttpResponse response = handle(HttpRequest.of(url, params));
+        if (response.status == 200) {
+            System.out.println(response.bodyAsString());
+        } else {
+            System.out.println("[Response] " + response.status + " " + HttpResponse.reason(response.status));
+        }
+    }
+
+    // 실행 모드 설정 - maxConcurrency 는 동시에 컨트롤러를 실행하는 요청 수 상한 (DB 풀 보호용)
+    public synchronized void configureExecution(ExecutionMode mode, int maxConcurrency) {
+        Execution previous = execution;
+        if (mode == ExecutionMode.VIRTUAL_THREAD) {
+            execution = new Execution(mode, VirtualThreads.newPerTaskExecutor("mvc-request", maxConcurrency), new Semaphore(maxConcurrency, true));
+        } else {
+            execution = new Execution(mode, null, null);
         }
+        if (previous.executor != null) previous.executor.shutdown();
+        System.out.println("[MVC] 실행 모드: " + mode + (mode == ExecutionMode.VIRTUAL_THREAD ? " (최대 동시 실행 " + maxConcurrency + ")" : ""));
+    }
+
+    // 응답 압축 설정 - minSize 바이트보다 작은 응답은 압축하지 않음
+    public void configureCompression(int level, int minSize) {
+        compressor = new ResponseCompressor(level, minSize);
+        System.out.println("[MVC] 응답 압축: level " + level + ", " + minSize + " 바이트 이상");
+    }
+
+    // 큐 지연 기반 부하 차단 설정 (CoDel 의 target/interval, 보통 5ms/100ms)
+    public void configureAdmission(long targetMillis, long intervalMillis) {
+        admission = new AdmissionController(targetMillis, intervalMillis);
+        System.out.println("[MVC] 입장 제어: 큐 지연 목표 " + targetMillis + "ms, 관측 구간 " + intervalMillis + "ms");
+    }
+
+    public AdmissionController getAdmission() {
+        return admission;
+    }
 
+    // 실행 모드에 맞춰 요청을 처리 (caller-runs 면 이미 완료된 future 를 돌려줌)
+    public CompletableFuture<HttpResponse> handleAsync(HttpRequest request) {
+        RadixRouter.Route<HandlerMethod> route = handlerMapping.match(request.method, request.path, request);
+        if(route == null){
+            if (!handlerMapping.hasPath(request.path)) return CompletableFuture.completedFuture(HttpResponse.error(404));
+            // 405 에는 이 경로가 받는 메서드 목록을 알려 줌 (RFC 9110 15.5.6)
+            return CompletableFuture.completedFuture(HttpResponse.error(405).header("Allow", handlerMapping.allowedMethods(request.path)));
+        }
+        HandlerMethod handlerMethod = route.handler;
+        AdmissionController admission = this.admission;
+        Execution current = execution;
+        if (current.mode == ExecutionMode.CALLER_RUNS) {
+            if (admission != null && !admission.admit(request.receivedAt, handlerMethod.priority)) {
+                return CompletableFuture.completedFuture(HttpResponse.error(503));
+            }
+            return dispatch(request, handlerMethod);
+        }
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
         try {
-            // 메서드 파라미터 이름에 맞춰 전달받은 params 매칭 (간단 구현)
-            Parameter[] parameters = handlerMethod.method.getParameters();
-            Object[] args = new Object[parameters.length];
-            for (int i = 0; i < parameters.length; i++) {
-                args[i] = parameters[i].getName();
+            current.executor.execute(() -> {
+                // CRITICAL 라우트는 동시 실행 제한을 받지 않음 (큐에서 기다리지 않음)
+                boolean limited = handlerMethod.priority != RequestPriority.CRITICAL;
+                // 가상 스레드는 대기 비용이 싸므로 허가를 기다리며 블로킹해도 됨
+                try {
+                    if (limited && admission == null) {
+                        current.limit.acquire();
+                    } else if (limited && !admission.acquire(current.limit, request.receivedAt, handlerMethod.priority)) {
+                        future.complete(HttpResponse.error(503));
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    future.complete(HttpResponse.error(503));
+                    return;
+                }
+                CompletableFuture<HttpResponse> response;
+                try {
+                    response = dispatch(request, handlerMethod);
+                } catch (RuntimeException e) {
+                    response = CompletableFuture.failedFuture(e);
+                } finally {
+                    // 허가는 컨트롤러 메서드가 반환할 때까지만 (비동기 핸들러의 나머지 작업은 제한 대상 아님)
+                    if (limited) current.limit.release();
+                }
+                // 예외로 끝나면 null 대신 500 응답
+                response.whenComplete((r, e) -> future.complete(e == null ? r : HttpResponse.error(500)));
+            });
+        } catch (RejectedExecutionException e) {
+            future.complete(HttpResponse.error(503));
+        }
+        return future;
+    }
+
+    // 요청을 처리하고 응답이 나올 때까지 기다림 (service 등 인프로세스 호출용)
+    public HttpResponse handle(HttpRequest request) {
+        return handleAsync(request).join();
+    }
+
+    // 요청을 컨트롤러에 연결 - CompletableFuture 를 돌려주는 핸들러는 완료 시점에 응답이 만들어짐
+    private CompletableFuture<HttpResponse> dispatch(HttpRequest request, HandlerMethod handlerMethod) {
+        CompletableFuture<HttpResponse> response;
+        if (handlerMethod.cache != null && "GET".equals(request.method)) {
+            response = handlerMethod.cache.handle(request, () -> invoke(handlerMethod, request));
+        } else {
+            response = invoke(handlerMethod, request);
+        }
+
+        ResponseCompressor compression = compressor;
+        if (compression == null || handlerMethod.compressionLevel == 0) {
+            return response;
+        }
+        return response.thenApply(r -> compression.apply(request, r, handlerMethod.compressionLevel));
+    }
+
+    // 인자를 바인딩하고 컨트롤러를 호출해 반환 값을 응답으로 바꿈
+    private CompletableFuture<HttpResponse> invoke(HandlerMethod handlerMethod, HttpRequest request) {
+        if (handlerMethod.writesToSink) request.responseSink = new ChunkedBody();
+
+        Object result;
+        try {
+            // 매핑 시점에 만들어 둔 리졸버로 파라미터 이름에 맞는 값을 꺼내 변환
+            HandlerArgumentResolver[] resolvers = handlerMethod.resolvers;
+            Object[] args = new Object[resolvers.length];
+            for (int i = 0; i < resolvers.length; i++) {
+                args[i] = resolvers[i].resolve(request);
+            }
+
+            if (handlerMethod.writesToSink) {
+                // 헤더는 바로 내보내고 핸들러는 생산자 스레드에서 실행
+                return stream(request.responseSink, sink -> {
+                    Object ignored = (Object) handlerMethod.invoker.invokeExact(args);
+                });
+            }
+
+            // 컨트롤러 메서드 실행 (리플렉션 대신 MethodHandle)
+            result = (Object) handlerMethod.invoker.invokeExact(args);
+        } catch (Throwable e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+
+        if (result instanceof CompletionStage) {
+            // 원본 future 는 건드리지 않고 복사본에 라우트별 타임아웃 적용 (공용 타이머 사용)
+            return ((CompletionStage<?>) result).toCompletableFuture().copy()
+                    .orTimeout(handlerMethod.timeoutMillis, TimeUnit.MILLISECONDS)
+                    .handle((value, error) -> error != null ? errorResponse(error) : HttpResponse.ok(String.valueOf(value)));
+        }
+        if (result instanceof HttpResponse) {
+            return CompletableFuture.completedFuture((HttpResponse) result);
+        }
+        if (result instanceof Stream || result instanceof Iterator) {
+            return stream(new ChunkedBody(), sink -> writeItems(result, sink));
+        }
+        return CompletableFuture.completedFuture(HttpResponse.ok(String.valueOf(result)));
+    }
+
+    // 생산자를 별도 스레드에서 돌리고 청크 응답을 바로 돌려줌
+    private CompletableFuture<HttpResponse> stream(ChunkedBody body, StreamProducer producer) {
+        streamExecutor().execute(() -> {
+            try {
+                producer.produce(body);
+                body.close();
+            } catch (Throwable e) {
+                body.abort(e);
             }
+        });
+        return CompletableFuture.completedFuture(HttpResponse.streaming(body));
+    }
 
-            // 컨트롤러 메서드 실행
-            Object result = handlerMethod.method.invoke(handlerMethod.controller, args);
-            System.out.println(result);
-        } catch (Exception e) {
-            System.out.println("[Response] 500 Internal Server Error");
+    // 항목 하나당 한 줄 (Stream 은 다 쓰고 나면 닫음)
+    private static void writeItems(Object items, ResponseSink sink) {
+        if (items instanceof Stream) {
+            try (Stream<?> stream = (Stream<?>) items) {
+                stream.forEachOrdered(item -> writeLine(sink, item));
+            }
+            return;
         }
+        Iterator<?> iterator = (Iterator<?>) items;
+        while (iterator.hasNext()) {
+            writeLine(sink, iterator.next());
+        }
+    }
+
+    private static void writeLine(ResponseSink sink, Object item) {
+        sink.write(String.valueOf(item));
+        sink.write("\n");
     }
 
-    // 컨트롤러 인스턴스와 메서드 정보를 묶어주는 래퍼 클래스
+    private ExecutorService streamExecutor() {
+        ExecutorService executor = streamExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = streamExecutor;
+                if (executor == null) {
+                    streamExecutor = executor = VirtualThreads.newPerTaskExecutor("mvc-stream");
+                }
+            }
+        }
+        return executor;
+    }
+
+    private interface StreamProducer {
+        void produce(ChunkedBody body) throws Throwable;
+    }
+
+    // 예외 -> 상태 코드 (바인딩 실패 400, 타임아웃/과부하 503, 나머지 500)
+    private static HttpResponse errorResponse(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ArgumentBindingException) return HttpResponse.error(400);
+        if (cause instanceof TimeoutException || cause instanceof RejectedExecutionException) return HttpResponse.error(503);
+        return HttpResponse.error(500);
+    }
+
+    private static class Execution {
+        final ExecutionMode mode;
+        final ExecutorService executor;
+        final Semaphore limit;
+        Execution(ExecutionMode mode, ExecutorService executor, Semaphore limit) {this.mode = mode;this.executor = executor;this.limit = limit;}
+    }
+
+    // 컨트롤러 인스턴스와 메서드 정보, 미리 만든 인자 리졸버와 호출 핸들을 묶어주는 래퍼 클래스
     private static class HandlerMethod {
-        Object controller;
-        Method method;
-        HandlerMethod(Object controller, Method method) {this.controller = controller;this.method = method;}
+        final Object controller;
+        final Method method;
+        final HandlerArgumentResolver[] resolvers;
+        final long timeoutMillis;
+        final int compressionLevel;
+        final RequestPriority priority;
+        // ResponseSink 파라미터가 있으면 스트리밍 핸들러
+        final boolean writesToSink;
+        // @MyCacheControl 이 없으면 null
+        final ResponseCache cache;
+        // (Object[]) -> Object 형태로 맞춘 컨트롤러 메서드 핸들
+        final MethodHandle invoker;
+
+        HandlerMethod(Object controller, Method method) {
+            this.controller = controller;
+            this.method = method;
+            this.resolvers = HandlerArgumentResolver.forMethod(method);
+            MyRequestMapping mapping = method.getAnnotation(MyRequestMapping.class);
+            this.timeoutMillis = mapping != null ? mapping.timeoutMillis() : 30_000;
+            this.compressionLevel = mapping != null ? mapping.compressionLevel() : 0;
+            this.priority = mapping != null ? mapping.priority() : RequestPriority.NORMAL;
+            this.cache = ResponseCache.forMethod(method);
+            this.writesToSink = Arrays.asList(method.getParameterTypes()).contains(ResponseSink.class);
+            try {
+                this.invoker = MethodHandles.lookup().unreflect(method)
+                        .bindTo(controller)
+                        .asSpreader(Object[].class, resolvers.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("핸들러에 접근할 수 없습니다: " + method, e);
+            }
+        }
     }
 
 }
@@ -114,7 +462,7 @@ class TinyContainer {
 }
 
 public class TinySpringMvcComplete {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // 컨테이너 초기화
         TinyContainer container = new TinyContainer();
 
@@ -130,6 +478,50 @@ public class TinySpringMvcComplete {
         params1.put("name", "Gildong");
         tinyDispatcherServlet.service("/greet", params1);
 
+        Map<String, String> params3 = new HashMap<>();
+        params3.put("detail", "true");
+        tinyDispatcherServlet.service("/user/7", params3);
+
+        tinyDispatcherServlet.service("/user/abc", params3);
+
+        Map<String, String> params4 = new HashMap<>();
+        params4.put("name", "Async");
+        params4.put("delay", "100");
+        tinyDispatcherServlet.service("/greet/async", params4);
+
+        params4.put("delay", "2000");
+        tinyDispatcherServlet.service("/greet/async", params4);
+
+        Map<String, String> params5 = new HashMap<>();
+        params5.put("rows", "3");
+        tinyDispatcherServlet.service("/export", params5);
+        tinyDispatcherServlet.service("/export/sink", params5);
+
+        // 조건부 GET: 두 번째 호출은 서버 캐시, ETag 가 같으면 304
+        tinyDispatcherServlet.service("/notice", new HashMap<>());
+        HttpResponse notice = tinyDispatcherServlet.handle(HttpRequest.of("/notice", new HashMap<>()));
+        System.out.println(notice.bodyAsString() + " ETag=" + notice.headers.get("ETag"));
+        HttpRequest conditional = HttpRequest.of("/notice", new HashMap<>());
+        conditional.headers.put("if-none-match", notice.headers.get("ETag"));
+        System.out.println("[Response] If-None-Match -> " + tinyDispatcherServlet.handle(conditional).status);
+
+        // 응답 압축: Accept-Encoding 에 따라 gzip
+        tinyDispatcherServlet.configureCompression(6, 1024);
+        HttpRequest reportRequest = HttpRequest.of("/report", new HashMap<>());
+        reportRequest.params.put("rows", "200");
+        reportRequest.headers.put("accept-encoding", "gzip, deflate;q=0.5");
+        HttpResponse report = tinyDispatcherServlet.handle(reportRequest);
+        reportRequest.headers.remove("accept-encoding");
+        System.out.println("[Response] /report " + tinyDispatcherServlet.handle(reportRequest).body.length + " bytes -> "
+                + report.headers.get("Content-Encoding") + " " + report.body.length + " bytes");
+
+        // 정적 리소스 (임시 디렉터리에 파일을 만들어 등록)
+        Path publicDir = Files.createTempDirectory("tiny-static");
+        Files.writeString(publicDir.resolve("hello.txt"), "Hello from static file");
+        tinyDispatcherServlet.addResourceHandler("/static/", publicDir);
+        tinyDispatcherServlet.service("/static/hello.txt", new HashMap<>());
+        tinyDispatcherServlet.service("/static/../secret.txt", new HashMap<>());
+
         tinyDispatcherServlet.service("/invalid", new HashMap<>());
     }
 }
\ No newline at end of file
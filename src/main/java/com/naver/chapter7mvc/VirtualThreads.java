@@ -0,0 +1,67 @@
+package com.naver.chapter7mvc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 가상 스레드 실행기 (프로젝트는 JDK 17 기준이므로 JDK 21+ 에서만 리플렉션으로 사용)
+final class VirtualThreads {
+    private static final MethodHandle NEW_PER_TASK_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    // 작업마다 가상 스레드 하나 - 지원하지 않는 JVM 이면 작업마다 플랫폼 데몬 스레드로 대체 (수명이 긴 스트리밍 작업용)
+    static ExecutorService newPerTaskExecutor(String fallbackName) {
+        ExecutorService virtual = newVirtualExecutor();
+        if (virtual != null) return virtual;
+        AtomicInteger seq = new AtomicInteger();
+        return Executors.newCachedThreadPool(daemon(fallbackName, seq));
+    }
+
+    // 요청 처리용 - 지원하지 않는 JVM 이면 fallbackThreads 개의 고정 플랫폼 스레드 풀로 대체
+    // (허가를 작업 안에서 기다리므로, 상한 없는 풀이면 느린 요청마다 플랫폼 스레드가 하나씩 생김 - 남는 작업은 큐에서 대기)
+    static ExecutorService newPerTaskExecutor(String fallbackName, int fallbackThreads) {
+        ExecutorService virtual = newVirtualExecutor();
+        if (virtual != null) return virtual;
+        AtomicInteger seq = new AtomicInteger();
+        return Executors.newFixedThreadPool(fallbackThreads, daemon(fallbackName, seq));
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        if (NEW_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_PER_TASK_EXECUTOR.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("가상 스레드 실행기 생성 실패", e);
+            }
+        }
+        System.out.println("[VirtualThreads] JDK 21 미만 - 플랫폼 스레드로 대체합니다.");
+        return null;
+    }
+
+    private static ThreadFactory daemon(String name, AtomicInteger seq) {
+        return r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static MethodHandle lookup() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
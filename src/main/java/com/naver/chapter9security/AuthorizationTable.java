@@ -0,0 +1,128 @@
+package com.naver.chapter9security;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+// 핸들러 메서드별 필요 권한을 미리 계산해 둔 결정 테이블
+// 클래스를 처음 볼 때 한 번만 스캔해서 메서드마다 id 를 주고, 요청 시에는 id -> 규칙 배열 조회와 비트 연산만 함
+class AuthorizationTable {
+    private final RoleHierarchy hierarchy;
+    private final ClassValue<Map<String, Integer>> handlerIds = new ClassValue<Map<String, Integer>>() {
+        @Override
+        protected Map<String, Integer> computeValue(Class<?> type) {
+            return scan(type);
+        }
+    };
+    // 핸들러 id -> 필요 권한 규칙 (null 이면 공개 메서드)
+    private volatile Rule[] rules = new Rule[0];
+    private volatile String[] descriptions = new String[0];
+
+    AuthorizationTable(RoleHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    // 클래스의 메서드 이름 -> 핸들러 id (없는 메서드면 -1)
+    int handlerId(Class<?> type, String methodName) {
+        Integer id = handlerIds.get(type).get(methodName);
+        return id == null ? -1 : id;
+    }
+
+    Rule rule(int handlerId) {
+        return rules[handlerId];
+    }
+
+    String describe(int handlerId) {
+        return descriptions[handlerId];
+    }
+
+    // 메서드의 @MySecured 가 우선, 없으면 클래스(상위 클래스 포함)의 @MySecured, 둘 다 없으면 공개
+    private synchronized Map<String, Integer> scan(Class<?> type) {
+        MySecured classLevel = type.getAnnotation(MySecured.class);
+        Map<String, Integer> ids = new HashMap<>();
+        Rule[] compiled = rules;
+        String[] names = descriptions;
+        // getMethods() 순서는 정해져 있지 않으므로 시그니처 순으로 정렬해 설명 문자열을 고정
+        Method[] methods = type.getMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::toGenericString));
+        for (Method method : methods) {
+            if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) continue;
+            MySecured secured = method.isAnnotationPresent(MySecured.class) ? method.getAnnotation(MySecured.class) : classLevel;
+            Rule rule = secured == null ? null : compile(secured);
+            Integer existing = ids.get(method.getName());
+            if (existing != null) {
+                // 같은 이름의 오버로드는 이름으로만 찾으므로 하나의 항목 - 모든 오버로드의 규칙을 AND 로 합침
+                if (rule != null) {
+                    compiled[existing] = compiled[existing] == null ? rule : compiled[existing].and(rule);
+                    names[existing] = describe(type, method.getName(), compiled[existing]);
+                }
+                continue;
+            }
+            int id = compiled.length;
+            compiled = Arrays.copyOf(compiled, id + 1);
+            names = Arrays.copyOf(names, id + 1);
+            compiled[id] = rule;
+            names[id] = describe(type, method.getName(), rule);
+            ids.put(method.getName(), id);
+        }
+        descriptions = names;
+        rules = compiled;
+        return ids;
+    }
+
+    private static String describe(Class<?> type, String methodName, Rule rule) {
+        return type.getSimpleName() + "." + methodName + (rule == null ? "" : "(" + rule.expression + ")");
+    }
+
+    // anyOf/allOf 가 비어 있으면 role 하나를 anyOf 로 취급
+    private Rule compile(MySecured secured) {
+        String[] anyOf = secured.anyOf().length == 0 && secured.allOf().length == 0 ? new String[]{secured.role()} : secured.anyOf();
+        String[] allOf = secured.allOf();
+        StringBuilder expression = new StringBuilder();
+        if (anyOf.length > 0) expression.append(anyOf.length == 1 ? anyOf[0] : "anyOf" + Arrays.toString(anyOf));
+        if (allOf.length > 0) expression.append(expression.length() > 0 ? " && " : "").append("allOf").append(Arrays.toString(allOf));
+        return new Rule(anyOf.length == 0 ? null : hierarchy.setOf(anyOf), allOf.length == 0 ? null : hierarchy.setOf(allOf), expression.toString());
+    }
+
+    // (anyOf 중 하나라도) && (allOf 모두) - 주체의 유효 권한 비트셋에 대한 AND 연산
+    // 오버로드가 합쳐진 경우 next 의 규칙도 모두 만족해야 함
+    static final class Rule {
+        private final AuthoritySet anyOf;
+        private final AuthoritySet allOf;
+        private final Rule next;
+        // 이 규칙 하나의 표현식 / next 까지 합친 표현식
+        private final String part;
+        final String expression;
+
+        Rule(AuthoritySet anyOf, AuthoritySet allOf, String expression) {
+            this(anyOf, allOf, null, expression);
+        }
+
+        private Rule(AuthoritySet anyOf, AuthoritySet allOf, Rule next, String part) {
+            this.anyOf = anyOf;
+            this.allOf = allOf;
+            this.next = next;
+            this.part = part;
+            this.expression = next == null ? part : next.expression + " && " + part;
+        }
+
+        // 단일 규칙(other)을 덧붙임 - 같은 표현식이 이미 있으면 (상속/브리지 메서드 등) 그대로 둠
+        Rule and(Rule other) {
+            for (Rule r = this; r != null; r = r.next) {
+                if (r.part.equals(other.part)) return this;
+            }
+            return new Rule(other.anyOf, other.allOf, this, other.part);
+        }
+
+        boolean permits(AuthoritySet authorities) {
+            for (Rule r = this; r != null; r = r.next) {
+                if (r.anyOf != null && !authorities.intersects(r.anyOf)) return false;
+                if (r.allOf != null && !authorities.containsAll(r.allOf)) return false;
+            }
+            return true;
+        }
+    }
+}
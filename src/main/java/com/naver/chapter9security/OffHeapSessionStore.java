@@ -0,0 +1,453 @@
+package com.naver.chapter9security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 세션 내용(주체, 역할, 속성)을 직렬화해 SlabArena(힙 밖)에 두는 세션 저장소
+//  - 힙에는 샤드별 오픈 어드레싱 색인(세션 ID 128비트 -> 청크 주소)과 타이머 휠의 int 배열만 남음
+//    세션당 객체가 없으므로 세션이 수백만 개여도 GC 가 훑을 대상이 늘지 않음
+//  - persistFile 을 주면 메모리 맵 파일에 두고, 다시 열 때 살아 있는 세션을 색인으로 복구
+// 조회할 때마다 Principal 을 역직렬화하므로 조회 비용은 SessionStore 보다 큼
+class OffHeapSessionStore implements SessionRepository {
+    private static final int SHARDS = 64;
+    private static final int WHEEL_SLOTS = 512;
+    private static final int MAX_ROLE_SETS = 1024;
+    // 청크 레이아웃 (앞 8바이트는 SlabArena 가 사용)
+    private static final int ID_HI = SlabArena.HEADER;
+    private static final int ID_LO = ID_HI + 8;
+    private static final int EXPIRES_AT = ID_LO + 8;
+    private static final int LAST_ACCESS = EXPIRES_AT + 8;
+    private static final int WHEEL_TICK = LAST_ACCESS + 8;
+    private static final int LENGTH = WHEEL_TICK + 8;
+    private static final int PAYLOAD = LENGTH + 4;
+
+    private final RoleHierarchy hierarchy;
+    private final long idleTimeoutMillis;
+    private final long absoluteTimeoutMillis;
+    private final long tickMillis;
+    private final SlabArena arena;
+    private final Shard[] shards = new Shard[SHARDS];
+    private final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SessionStore::newRandom);
+    private final ScheduledExecutorService ticker;
+    // 역할 조합 -> 유효 권한 (조회마다 Principal 의 권한 비트셋을 새로 만들지 않음)
+    private final Map<List<String>, AuthoritySet> roleSets = new ConcurrentHashMap<>();
+
+    OffHeapSessionStore(RoleHierarchy hierarchy, long idleTimeoutMillis, long absoluteTimeoutMillis, long capacityBytes) {
+        this(hierarchy, idleTimeoutMillis, absoluteTimeoutMillis, capacityBytes, null);
+    }
+
+    OffHeapSessionStore(RoleHierarchy hierarchy, long idleTimeoutMillis, long absoluteTimeoutMillis,
+                        long capacityBytes, Path persistFile) {
+        this.hierarchy = hierarchy;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.absoluteTimeoutMillis = absoluteTimeoutMillis;
+        this.tickMillis = Math.max(10, Math.min(1000, Math.min(idleTimeoutMillis, absoluteTimeoutMillis) / 8));
+        this.arena = new SlabArena(capacityBytes, persistFile);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(now / tickMillis);
+        }
+        if (arena.recovered()) arena.recover(address -> restore(address, now));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "offheap-session-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String login(String name, String... roles) {
+        byte[] payload = encode(name, roles, Map.of());
+        SecureRandom r = random.get();
+        long hi = r.nextLong();
+        long lo = r.nextLong();
+        long now = System.currentTimeMillis();
+        Shard shard = shardOf(hi);
+        synchronized (shard) {
+            // 0 은 빈 칸 표시이므로 (확률상 없지만) 같은 ID 와 함께 피함
+            while ((hi == 0 && lo == 0) || shard.find(hi, lo) != 0) lo = r.nextLong();
+            int address = arena.allocate(PAYLOAD + payload.length);
+            arena.putLong(address, ID_HI, hi);
+            arena.putLong(address, ID_LO, lo);
+            arena.putLong(address, EXPIRES_AT, now + absoluteTimeoutMillis);
+            arena.putLong(address, LAST_ACCESS, now);
+            writePayload(address, payload);
+            shard.put(hi, lo, address);
+            shard.schedule(arena, address, deadline(address), tickMillis);
+        }
+        return encodeId(hi, lo);
+    }
+
+    @Override
+    public Principal get(String sessionId) {
+        long[] id = decodeId(sessionId);
+        if (id == null) return null;
+        Shard shard = shardOf(id[0]);
+        byte[] payload;
+        synchronized (shard) {
+            int address = touch(shard, id[0], id[1]);
+            if (address == 0) return null;
+            payload = readPayload(address);
+        }
+        // 역직렬화는 락 밖에서
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String name = in.readUTF();
+            String[] roles = readRoles(in);
+            return new Principal(name, roles, authoritiesOf(roles));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 역할 조합별로 한 번만 OR 한 유효 권한 (세션마다 역할 조합은 몇 가지뿐, 공유 객체이므로 수정 금지)
+    private AuthoritySet authoritiesOf(String[] roles) {
+        List<String> key = Arrays.asList(roles);
+        AuthoritySet cached = roleSets.get(key);
+        if (cached != null) return cached;
+        AuthoritySet computed = hierarchy.authoritiesOf(roles);
+        if (roleSets.size() >= MAX_ROLE_SETS) {
+            Iterator<List<String>> it = roleSets.keySet().iterator();
+            if (it.hasNext()) roleSets.remove(it.next());
+        }
+        roleSets.putIfAbsent(key, computed);
+        return computed;
+    }
+
+    @Override
+    public boolean setAttribute(String sessionId, String name, String value) {
+        long[] id = decodeId(sessionId);
+        if (id == null) return false;
+        Shard shard = shardOf(id[0]);
+        synchronized (shard) {
+            int address = touch(shard, id[0], id[1]);
+            if (address == 0) return false;
+            Record record = decode(readPayload(address));
+            if (value == null) record.attributes.remove(name);
+            else record.attributes.put(name, value);
+            byte[] payload = encode(record.name, record.roles, record.attributes);
+            if (PAYLOAD + payload.length > arena.capacityOf(address)) {
+                // 크기 등급이 바뀌면 새 청크로 옮김 - 휠에 남은 옛 주소는 해당 칸이 돌 때 건너뜀
+                int moved = arena.allocate(PAYLOAD + payload.length);
+                for (int offset = ID_HI; offset < LENGTH; offset += 8) {
+                    arena.putLong(moved, offset, arena.getLong(address, offset));
+                }
+                arena.free(address);
+                address = moved;
+                shard.put(id[0], id[1], address);
+                shard.schedule(arena, address, deadline(address), tickMillis);
+            }
+            writePayload(address, payload);
+            return true;
+        }
+    }
+
+    @Override
+    public String getAttribute(String sessionId, String name) {
+        long[] id = decodeId(sessionId);
+        if (id == null) return null;
+        Shard shard = shardOf(id[0]);
+        synchronized (shard) {
+            int address = touch(shard, id[0], id[1]);
+            return address == 0 ? null : decode(readPayload(address)).attributes.get(name);
+        }
+    }
+
+    @Override
+    public void logout(String sessionId) {
+        long[] id = decodeId(sessionId);
+        if (id == null) return;
+        Shard shard = shardOf(id[0]);
+        synchronized (shard) {
+            int address = shard.find(id[0], id[1]);
+            if (address != 0) remove(shard, address);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.size;
+            }
+        }
+        return size;
+    }
+
+    // 힙 밖에 확보한 슬랩 크기
+    long offHeapBytes() {
+        return arena.usedBytes();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        arena.close();
+    }
+
+    // 샤드 락을 잡은 상태에서 호출 - 살아 있는 세션이면 lastAccess 를 갱신하고 주소를 돌려줌
+    private int touch(Shard shard, long hi, long lo) {
+        int address = shard.find(hi, lo);
+        if (address == 0) return 0;
+        long now = System.currentTimeMillis();
+        if (deadline(address) <= now) {
+            remove(shard, address);
+            return 0;
+        }
+        arena.putLong(address, LAST_ACCESS, now);
+        return address;
+    }
+
+    private long deadline(int address) {
+        return Math.min(arena.getLong(address, LAST_ACCESS) + idleTimeoutMillis, arena.getLong(address, EXPIRES_AT));
+    }
+
+    private void remove(Shard shard, int address) {
+        shard.delete(arena.getLong(address, ID_HI), arena.getLong(address, ID_LO));
+        arena.free(address);
+    }
+
+    // 파일에서 복구한 청크 - 만료되었거나 쓰다 만 레코드는 버림
+    private void restore(int address, long now) {
+        long hi = arena.getLong(address, ID_HI);
+        long lo = arena.getLong(address, ID_LO);
+        int length = arena.getInt(address, LENGTH);
+        boolean valid = (hi != 0 || lo != 0) && length > 0 && PAYLOAD + length <= arena.capacityOf(address)
+                && deadline(address) > now;
+        if (valid) {
+            try {
+                decode(readPayload(address));
+            } catch (RuntimeException e) {
+                valid = false;
+            }
+        }
+        if (!valid) {
+            arena.free(address);
+            return;
+        }
+        Shard shard = shardOf(hi);
+        synchronized (shard) {
+            shard.put(hi, lo, address);
+            shard.schedule(arena, address, deadline(address), tickMillis);
+        }
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.advance(this, now, tickMillis);
+            }
+        }
+    }
+
+    private Shard shardOf(long hi) {
+        return shards[(int) (hi >>> 58)];
+    }
+
+    private void writePayload(int address, byte[] payload) {
+        arena.write(address, PAYLOAD, payload, payload.length);
+        arena.putInt(address, LENGTH, payload.length);
+    }
+
+    private byte[] readPayload(int address) {
+        byte[] payload = new byte[arena.getInt(address, LENGTH)];
+        arena.read(address, PAYLOAD, payload, payload.length);
+        return payload;
+    }
+
+    // 이름, 역할 수, 역할들, 속성 수, (키, 값)들
+    private static byte[] encode(String name, String[] roles, Map<String, String> attributes) {
+        // 역할 수는 1바이트로 기록 (TokenAuthenticator 와 같은 제한)
+        if (roles.length > 255) throw new IllegalArgumentException("역할은 255개까지 가능합니다: " + roles.length);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(name);
+            out.writeByte(roles.length);
+            for (String role : roles) out.writeUTF(role);
+            out.writeShort(attributes.size());
+            for (Map.Entry<String, String> e : attributes.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeUTF(e.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (PAYLOAD + bytes.size() > SlabArena.MAX_CHUNK) {
+            throw new IllegalArgumentException("세션 데이터가 너무 큽니다: " + bytes.size() + " bytes");
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Record decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String name = in.readUTF();
+            String[] roles = readRoles(in);
+            int count = in.readUnsignedShort();
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) attributes.put(in.readUTF(), in.readUTF());
+            return new Record(name, roles, attributes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String[] readRoles(DataInputStream in) throws IOException {
+        String[] roles = new String[in.readUnsignedByte()];
+        for (int i = 0; i < roles.length; i++) roles[i] = in.readUTF();
+        return roles;
+    }
+
+    // SessionStore 와 같은 형식 (128비트, URL-safe Base64)
+    private static String encodeId(long hi, long lo) {
+        byte[] bytes = ByteBuffer.allocate(16).putLong(hi).putLong(lo).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static long[] decodeId(String sessionId) {
+        if (sessionId == null || sessionId.length() != 22) return null;
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(sessionId));
+            return new long[]{bytes.getLong(), bytes.getLong()};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Record {
+        final String name;
+        final String[] roles;
+        final Map<String, String> attributes;
+
+        Record(String name, String[] roles, Map<String, String> attributes) {
+            this.name = name;
+            this.roles = roles;
+            this.attributes = attributes;
+        }
+    }
+
+    // 128비트 ID -> 청크 주소 (선형 탐사, 삭제는 뒤 칸을 당겨 채움 - 묘비 없음)
+    // 주소 0 은 SlabArena 메타 슬랩이라 빈 칸 표시로 씀
+    private static final class Shard {
+        long[] his = new long[64];
+        long[] los = new long[64];
+        int[] addresses = new int[64];
+        int size;
+        // 타이머 휠 - 칸마다 주소 배열, 청크의 WHEEL_TICK 이 그 칸의 틱과 같을 때만 유효
+        final int[][] wheel = new int[WHEEL_SLOTS][];
+        final int[] wheelSizes = new int[WHEEL_SLOTS];
+        long cursor;
+
+        Shard(long cursor) {
+            this.cursor = cursor;
+        }
+
+        int find(long hi, long lo) {
+            int mask = addresses.length - 1;
+            for (int i = (int) lo & mask; addresses[i] != 0; i = (i + 1) & mask) {
+                if (his[i] == hi && los[i] == lo) return addresses[i];
+            }
+            return 0;
+        }
+
+        void put(long hi, long lo, int address) {
+            int mask = addresses.length - 1;
+            int i = (int) lo & mask;
+            for (; addresses[i] != 0; i = (i + 1) & mask) {
+                if (his[i] == hi && los[i] == lo) {
+                    addresses[i] = address;
+                    return;
+                }
+            }
+            his[i] = hi;
+            los[i] = lo;
+            addresses[i] = address;
+            if (++size * 2 > addresses.length) resize();
+        }
+
+        void delete(long hi, long lo) {
+            int mask = addresses.length - 1;
+            int i = (int) lo & mask;
+            while (addresses[i] != 0 && !(his[i] == hi && los[i] == lo)) i = (i + 1) & mask;
+            if (addresses[i] == 0) return;
+            size--;
+            // 빈 칸이 생기면 그 뒤 무리 중 원래 자리가 빈 칸 이전인 항목을 당겨옴
+            int hole = i;
+            for (int j = (hole + 1) & mask; addresses[j] != 0; j = (j + 1) & mask) {
+                int home = (int) los[j] & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    his[hole] = his[j];
+                    los[hole] = los[j];
+                    addresses[hole] = addresses[j];
+                    hole = j;
+                }
+            }
+            addresses[hole] = 0;
+        }
+
+        private void resize() {
+            long[] oldHis = his;
+            long[] oldLos = los;
+            int[] oldAddresses = addresses;
+            his = new long[oldAddresses.length * 2];
+            los = new long[oldAddresses.length * 2];
+            addresses = new int[oldAddresses.length * 2];
+            size = 0;
+            for (int i = 0; i < oldAddresses.length; i++) {
+                if (oldAddresses[i] != 0) put(oldHis[i], oldLos[i], oldAddresses[i]);
+            }
+        }
+
+        void schedule(SlabArena arena, int address, long deadline, long tickMillis) {
+            long tick = Math.min(Math.max(deadline / tickMillis, cursor + 1), cursor + WHEEL_SLOTS - 1);
+            int slot = (int) (tick & (WHEEL_SLOTS - 1));
+            arena.putLong(address, WHEEL_TICK, tick);
+            int[] entries = wheel[slot];
+            if (entries == null) wheel[slot] = entries = new int[16];
+            else if (wheelSizes[slot] == entries.length) wheel[slot] = entries = Arrays.copyOf(entries, entries.length * 2);
+            entries[wheelSizes[slot]++] = address;
+        }
+
+        void advance(OffHeapSessionStore store, long now, long tickMillis) {
+            SlabArena arena = store.arena;
+            long target = now / tickMillis;
+            if (target - cursor > WHEEL_SLOTS) cursor = target - WHEEL_SLOTS;
+            while (cursor < target) {
+                cursor++;
+                int slot = (int) (cursor & (WHEEL_SLOTS - 1));
+                int[] entries = wheel[slot];
+                int count = wheelSizes[slot];
+                wheelSizes[slot] = 0;
+                // 한 칸이 유난히 커졌다면 배열을 놓아 줌
+                if (entries != null && entries.length > 4096 && count < entries.length / 4) wheel[slot] = null;
+                for (int k = 0; k < count; k++) {
+                    int address = entries[k];
+                    // 옮겨졌거나 해제된(다른 세션이 재사용한) 청크는 건너뜀
+                    if (!arena.isUsed(address) || arena.getLong(address, WHEEL_TICK) != cursor) continue;
+                    if (find(arena.getLong(address, ID_HI), arena.getLong(address, ID_LO)) != address) continue;
+                    long deadline = store.deadline(address);
+                    if (deadline <= now) store.remove(this, address);
+                    else schedule(arena, address, deadline, tickMillis);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.naver.chapter9security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 역할 계층 + 세부 권한 선언 ("ADMIN > MANAGER > USER" 형식, 역할마다 grant 로 권한 부여)
+// 처음 사용할 때 역할마다 상속받는 모든 역할/권한을 펼친 비트셋(클로저)으로 컴파일하고 이후로는 변경 불가
+class RoleHierarchy {
+    static final String DEFAULT = "ADMIN > MANAGER > USER";
+
+    // 역할 -> 바로 아래 역할들
+    private final Map<String, Set<String>> inherits = new LinkedHashMap<>();
+    private final Map<String, Set<String>> grants = new LinkedHashMap<>();
+
+    // 컴파일 결과: 권한(역할 포함) 이름 -> 비트 번호, 역할 -> 유효 권한 비트셋
+    // 컴파일 후에는 읽기만 하므로 volatile 로 공개 (bits 를 먼저 쓰고 closures 를 마지막에 씀 - 조회는 락 없음)
+    private volatile Map<String, Integer> bits;
+    private volatile Map<String, AuthoritySet> closures;
+
+    RoleHierarchy(String hierarchy) {
+        for (String line : hierarchy.split("[\\n;]")) {
+            String[] chain = line.split(">");
+            for (int i = 0; i < chain.length; i++) {
+                String role = chain[i].trim();
+                if (role.isEmpty()) continue;
+                Set<String> children = inherits.computeIfAbsent(role, r -> new LinkedHashSet<>());
+                if (i + 1 < chain.length) children.add(chain[i + 1].trim());
+            }
+        }
+    }
+
+    // 역할에 세부 권한 부여 (상위 역할은 자동으로 물려받음)
+    synchronized RoleHierarchy grant(String role, String... authorities) {
+        if (closures != null) throw new IllegalStateException("이미 컴파일된 역할 계층은 변경할 수 없습니다.");
+        inherits.computeIfAbsent(role, r -> new LinkedHashSet<>());
+        grants.computeIfAbsent(role, r -> new LinkedHashSet<>()).addAll(Arrays.asList(authorities));
+        return this;
+    }
+
+    // 역할들의 유효 권한을 OR 한 비트셋 (로그인 시 한 번 계산)
+    AuthoritySet authoritiesOf(String... roles) {
+        Map<String, AuthoritySet> closures = compiled();
+        AuthoritySet result = new AuthoritySet(bits.size());
+        for (String role : roles) {
+            AuthoritySet closure = role == null ? null : closures.get(role);
+            if (closure != null) result.or(closure);
+        }
+        return result;
+    }
+
+    // 역할 하나의 미리 컴파일된 유효 권한 (없는 역할이면 null, 공유 객체이므로 수정 금지)
+    AuthoritySet closureOf(String role) {
+        Map<String, AuthoritySet> closures = compiled();
+        return role == null ? null : closures.get(role);
+    }
+
+    // 표현식에 쓰인 권한 이름들을 비트셋으로 (선언되지 않은 권한이면 매핑 시점에 실패)
+    AuthoritySet setOf(String... authorities) {
+        compiled();
+        Map<String, Integer> bits = this.bits;
+        AuthoritySet set = new AuthoritySet(bits.size());
+        for (String authority : authorities) {
+            Integer bit = bits.get(authority);
+            if (bit == null) throw new IllegalStateException("선언되지 않은 역할/권한: " + authority);
+            set.set(bit);
+        }
+        return set;
+    }
+
+    // 컴파일이 끝났으면 락 없이 바로 반환 (요청마다 불리는 경로)
+    private Map<String, AuthoritySet> compiled() {
+        Map<String, AuthoritySet> current = closures;
+        if (current != null) return current;
+        compile();
+        return closures;
+    }
+
+    private synchronized void compile() {
+        if (closures != null) return;
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (Map.Entry<String, Set<String>> entry : inherits.entrySet()) {
+            index.putIfAbsent(entry.getKey(), index.size());
+            for (String child : entry.getValue()) index.putIfAbsent(child, index.size());
+        }
+        for (Set<String> authorities : grants.values()) {
+            for (String authority : authorities) index.putIfAbsent(authority, index.size());
+        }
+
+        Map<String, AuthoritySet> compiled = new HashMap<>();
+        for (String role : inherits.keySet()) {
+            AuthoritySet closure = new AuthoritySet(index.size());
+            // 계층을 따라 내려가며 역할과 권한을 모음 (순환이 있어도 한 번씩만 방문)
+            Set<String> visited = new LinkedHashSet<>();
+            List<String> pending = new ArrayList<>();
+            pending.add(role);
+            while (!pending.isEmpty()) {
+                String current = pending.remove(pending.size() - 1);
+                if (!visited.add(current)) continue;
+                closure.set(index.get(current));
+                for (String authority : grants.getOrDefault(current, Set.of())) closure.set(index.get(authority));
+                pending.addAll(inherits.getOrDefault(current, Set.of()));
+            }
+            compiled.put(role, closure);
+        }
+        bits = index;
+        closures = compiled;
+    }
+}
+
+// 고정 크기 권한 비트셋 - 검사는 long 단위 AND 이므로 권한이 수백 개여도 워드 몇 개만 봄
+final class AuthoritySet {
+    private final long[] words;
+
+    AuthoritySet(int size) {
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    void set(int bit) {
+        words[bit >>> 6] |= 1L << bit;
+    }
+
+    void or(AuthoritySet other) {
+        for (int i = 0; i < words.length; i++) words[i] |= other.words[i];
+    }
+
+    boolean intersects(AuthoritySet other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != 0L) return true;
+        }
+        return false;
+    }
+
+    boolean containsAll(AuthoritySet other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((other.words[i] & ~words[i]) != 0L) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,307 @@
+package com.naver.chapter9security;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 로그인한 주체 - 유효 권한 비트셋은 로그인 시 한 번만 계산
+final class Principal {
+    final String name;
+    final String[] roles;
+    final AuthoritySet authorities;
+
+    Principal(String name, String[] roles, AuthoritySet authorities) {
+        this.name = name;
+        this.roles = roles;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public String toString() {
+        return name + Arrays.toString(roles);
+    }
+}
+
+// 요청을 처리하는 스레드에 현재 주체를 묶어 두는 곳 (인터셉터는 세션 저장소를 보지 않고 여기서 바로 꺼냄)
+final class SecurityContext {
+    private static final ThreadLocal<Principal> CURRENT = new ThreadLocal<>();
+
+    private SecurityContext() {
+    }
+
+    static Principal current() {
+        return CURRENT.get();
+    }
+
+    // try-with-resources 로 요청 범위 동안만 묶고, 끝나면 이전 값으로 되돌림
+    static Scope bind(Principal principal) {
+        Principal previous = CURRENT.get();
+        CURRENT.set(principal);
+        return () -> {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        };
+    }
+
+    // 요청 하나를 주체에 묶어 실행 (범위를 쓰지 않는 호출 쪽에서 이름만 있는 자원 변수를 두지 않도록)
+    static void runAs(Principal principal, Runnable request) {
+        Scope scope = bind(principal);
+        try {
+            request.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
+
+// 세션 저장소 - 힙에 두는 SessionStore 와 힙 밖에 두는 OffHeapSessionStore 가 같은 방식으로 쓰임
+interface SessionRepository {
+    // 로그인 - 새 세션 ID 를 돌려줌
+    String login(String name, String... roles);
+
+    // 세션의 주체 (없거나 만료되었으면 null) - 유휴 만료 시각을 뒤로 미룸
+    Principal get(String sessionId);
+
+    void logout(String sessionId);
+
+    // 세션 속성 (세션이 없으면 false / null)
+    boolean setAttribute(String sessionId, String name, String value);
+
+    String getAttribute(String sessionId, String name);
+
+    int size();
+
+    void close();
+}
+
+// 세션 ID -> 주체 저장소 (샤드별 락, 유휴/절대 만료)
+// 만료는 샤드마다 해시드 타이머 휠로 처리 - 틱마다 해당 칸의 세션만 확인하고, 그 사이 접근된 세션은 새 만료 시각의 칸으로 옮김
+// (접근할 때마다 재예약하지 않으므로 조회는 lastAccess 갱신만 함, 전체 스캔 없음)
+class SessionStore implements SessionRepository {
+    private static final int SHARDS = 64;
+    private static final int WHEEL_SLOTS = 512;
+
+    private final RoleHierarchy hierarchy;
+    private final long idleTimeoutMillis;
+    private final long absoluteTimeoutMillis;
+    private final long tickMillis;
+    private final Shard[] shards = new Shard[SHARDS];
+    // 기본 NativePRNG 는 /dev/urandom 접근을 전역 락으로 직렬화하므로, 스레드마다 한 번 시드한 DRBG 사용
+    private final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SessionStore::newRandom);
+    private final ScheduledExecutorService ticker;
+
+    SessionStore(RoleHierarchy hierarchy, long idleTimeoutMillis, long absoluteTimeoutMillis) {
+        this.hierarchy = hierarchy;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.absoluteTimeoutMillis = absoluteTimeoutMillis;
+        // 만료 시각 오차는 틱 하나 이내 (유휴 시간의 1/8, 10ms~1s)
+        this.tickMillis = Math.max(10, Math.min(1000, Math.min(idleTimeoutMillis, absoluteTimeoutMillis) / 8));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(now / tickMillis);
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::expire, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String login(String name, String... roles) {
+        Principal principal = new Principal(name, roles, hierarchy.authoritiesOf(roles));
+        long now = System.currentTimeMillis();
+        Session session = new Session(newSessionId(), principal, now, now + absoluteTimeoutMillis);
+        Shard shard = shardOf(session.id);
+        synchronized (shard) {
+            shard.sessions.put(session.id, session);
+            shard.schedule(session, session.deadline(idleTimeoutMillis), tickMillis);
+        }
+        return session.id;
+    }
+
+    @Override
+    public Principal get(String sessionId) {
+        if (sessionId == null) return null;
+        Shard shard = shardOf(sessionId);
+        synchronized (shard) {
+            Session session = touch(shard, sessionId);
+            return session == null ? null : session.principal;
+        }
+    }
+
+    @Override
+    public boolean setAttribute(String sessionId, String name, String value) {
+        if (sessionId == null) return false;
+        Shard shard = shardOf(sessionId);
+        synchronized (shard) {
+            Session session = touch(shard, sessionId);
+            if (session == null) return false;
+            if (session.attributes == null) session.attributes = new HashMap<>(4);
+            if (value == null) session.attributes.remove(name);
+            else session.attributes.put(name, value);
+            return true;
+        }
+    }
+
+    @Override
+    public String getAttribute(String sessionId, String name) {
+        if (sessionId == null) return null;
+        Shard shard = shardOf(sessionId);
+        synchronized (shard) {
+            Session session = touch(shard, sessionId);
+            return session == null || session.attributes == null ? null : session.attributes.get(name);
+        }
+    }
+
+    // 샤드 락을 잡은 상태에서 호출
+    private Session touch(Shard shard, String sessionId) {
+        Session session = shard.sessions.get(sessionId);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (session.deadline(idleTimeoutMillis) <= now) {
+            // 아직 휠이 돌지 않았어도 만료된 세션은 돌려주지 않음
+            shard.remove(session);
+            return null;
+        }
+        session.lastAccess = now;
+        return session;
+    }
+
+    @Override
+    public void logout(String sessionId) {
+        Shard shard = shardOf(sessionId);
+        synchronized (shard) {
+            Session session = shard.sessions.get(sessionId);
+            if (session != null) shard.remove(session);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.sessions.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    // 틱마다 샤드별로 지난 칸들만 처리
+    private void expire() {
+        long now = System.currentTimeMillis();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.advance(now, idleTimeoutMillis, tickMillis);
+            }
+        }
+    }
+
+    private Shard shardOf(String sessionId) {
+        int h = sessionId.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+
+    // 128비트 난수 세션 ID (스레드별 SecureRandom 으로 경합 없음)
+    private String newSessionId() {
+        byte[] bytes = new byte[16];
+        random.get().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    private static final class Session {
+        final String id;
+        final Principal principal;
+        final long expiresAt;
+        long lastAccess;
+        Map<String, String> attributes;
+        // 타이머 휠 칸의 연결 리스트 (별도 노드 객체를 만들지 않음)
+        Session wheelNext;
+        boolean removed;
+
+        Session(String id, Principal principal, long now, long expiresAt) {
+            this.id = id;
+            this.principal = principal;
+            this.lastAccess = now;
+            this.expiresAt = expiresAt;
+        }
+
+        // 유휴 만료와 절대 만료 중 빠른 쪽
+        long deadline(long idleTimeoutMillis) {
+            return Math.min(lastAccess + idleTimeoutMillis, expiresAt);
+        }
+    }
+
+    private static final class Shard {
+        final Map<String, Session> sessions = new HashMap<>();
+        final Session[] wheel = new Session[WHEEL_SLOTS];
+        // 마지막으로 처리한 틱
+        long cursor;
+
+        Shard(long cursor) {
+            this.cursor = cursor;
+        }
+
+        // 휠 한 바퀴보다 먼 만료는 마지막 칸에 두고, 그 칸이 돌 때 다시 예약
+        void schedule(Session session, long deadline, long tickMillis) {
+            long tick = Math.min(Math.max(deadline / tickMillis, cursor + 1), cursor + WHEEL_SLOTS - 1);
+            int slot = (int) (tick & (WHEEL_SLOTS - 1));
+            session.wheelNext = wheel[slot];
+            wheel[slot] = session;
+        }
+
+        void advance(long now, long idleTimeoutMillis, long tickMillis) {
+            long target = now / tickMillis;
+            // 오래 멈췄다면 모든 칸을 한 번씩만 돌면 충분
+            if (target - cursor > WHEEL_SLOTS) cursor = target - WHEEL_SLOTS;
+            while (cursor < target) {
+                cursor++;
+                int slot = (int) (cursor & (WHEEL_SLOTS - 1));
+                Session session = wheel[slot];
+                wheel[slot] = null;
+                while (session != null) {
+                    Session next = session.wheelNext;
+                    session.wheelNext = null;
+                    if (!session.removed) {
+                        long deadline = session.deadline(idleTimeoutMillis);
+                        if (deadline <= now) remove(session);
+                        else schedule(session, deadline, tickMillis);
+                    }
+                    session = next;
+                }
+            }
+        }
+
+        // 휠에서는 해당 칸이 돌 때 건너뜀
+        void remove(Session session) {
+            session.removed = true;
+            sessions.remove(session.id);
+        }
+    }
+}
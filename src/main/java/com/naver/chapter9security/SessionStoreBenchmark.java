@@ -0,0 +1,78 @@
+package com.naver.chapter9security;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 세션 수백만 개를 만들고 여러 스레드에서 조회할 때의 메모리/처리량, 만료 처리 확인 (로컬 측정용)
+// 인자: [세션 수] [스레드 수] [heap|offheap]
+public class SessionStoreBenchmark {
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        boolean offHeap = args.length > 2 && args[2].equals("offheap");
+        RoleHierarchy hierarchy = new RoleHierarchy(RoleHierarchy.DEFAULT).grant("USER", "notice:read");
+        // 유휴 20초 - 마지막 단계에서 만료를 확인
+        SessionRepository sessions = offHeap
+                ? new OffHeapSessionStore(hierarchy, 20_000, TimeUnit.HOURS.toMillis(1), (long) count * 128 + (256L << 20))
+                : new SessionStore(hierarchy, 20_000, TimeUnit.HOURS.toMillis(1));
+        String[] ids = new String[count];
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        int perThread = count / threads;
+        for (int t = 0; t < threads; t++) {
+            int from = t * perThread;
+            pool.execute(() -> {
+                for (int i = from; i < from + perThread; i++) {
+                    ids[i] = sessions.login("user" + i, "USER");
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        long loginMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        int created = perThread * threads;
+        System.out.println("[Result] 로그인 " + created + "건: " + loginMillis + "ms, 세션당 힙 약 "
+                + (heapAfter - heapBefore) / created + " bytes"
+                + (offHeap ? ", 힙 밖 " + ((OffHeapSessionStore) sessions).offHeapBytes() / created + " bytes" : ""));
+
+        // 무작위 세션 조회 1초
+        LongAdder lookups = new LongAdder();
+        ExecutorService readers = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        for (int t = 0; t < threads; t++) {
+            readers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long n = 0;
+                while (System.nanoTime() < deadline) {
+                    if (sessions.get(ids[random.nextInt(created)]) == null) throw new IllegalStateException("세션 없음");
+                    n++;
+                }
+                lookups.add(n);
+            });
+        }
+        readers.shutdown();
+        readers.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.println("[Result] 세션 조회 (" + threads + " 스레드): " + lookups.sum() + " ops/s");
+        long gcStart = System.nanoTime();
+        System.gc();
+        System.out.println("[Result] 세션이 살아 있는 상태의 전체 GC: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - gcStart) + "ms");
+
+        // 유휴 시간이 지나면 타이머 휠이 전체 스캔 없이 만료시킴
+        long waitStart = System.nanoTime();
+        while (sessions.size() > 0 && System.nanoTime() - waitStart < TimeUnit.SECONDS.toNanos(60)) {
+            Thread.sleep(100);
+        }
+        System.out.println("[Result] 조회 종료 후 " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart)
+                + "ms 만에 만료 완료, 남은 세션 " + sessions.size());
+        sessions.close();
+    }
+}
@@ -0,0 +1,241 @@
+package com.naver.chapter9security;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+// 힙 밖(다이렉트 버퍼 또는 메모리 맵 파일)에 놓인 슬랩 할당기
+//  - 1MB 슬랩마다 한 가지 크기(64B ~ 4KB)의 청크만 담고, 크기별 빈 청크는 청크 안에 연결 리스트로 보관
+//  - 주소는 64바이트 단위 int (최대 128GB), 0번 슬랩은 메타데이터(매직, 슬랩 수, 슬랩별 크기 등급)
+//  - 파일에 매핑하면 재시작 후 사용 중인 청크를 다시 찾을 수 있음
+// 청크 앞 8바이트는 할당기가 사용 (상태, 빈 청크 연결), 호출자는 8바이트 이후를 씀
+final class SlabArena {
+    static final int HEADER = 8;
+    static final int MAX_CHUNK = 4096;
+    private static final int UNIT_SHIFT = 6;
+    private static final int SLAB_SIZE = 1 << 20;
+    private static final int SEGMENT_SIZE = 64 << 20;
+    private static final int CLASSES = 7; // 64 << 0 .. 64 << 6
+    private static final long MAGIC = 0x54696E7953657373L; // "TinySess"
+    private static final int META_SLAB_COUNT = 8;
+    private static final int META_CLASSES = 16;
+    private static final int FREE = 0;
+    private static final int USED = 1;
+
+    private final FileChannel file;
+    // 세그먼트는 처음 접근할 때 만들고 락 없이 읽으므로 원소 단위로 volatile 인 배열
+    private final AtomicReferenceArray<ByteBuffer> segments;
+    private final int maxSlabs;
+    private final byte[] slabClass;
+    private final int[] freeHeads = new int[CLASSES];
+    private int usedSlabs;
+    private final boolean recovered;
+
+    // file 이 null 이면 다이렉트 버퍼 (프로세스와 함께 사라짐)
+    // 기존 파일을 다시 열 때는 저장된 슬랩 수가 capacityBytes 보다 크면 파일 기준으로 키움
+    SlabArena(long capacityBytes, Path file) {
+        long capacity = Math.max(SEGMENT_SIZE, capacityBytes);
+        try {
+            boolean existing = file != null && Files.exists(file) && Files.size(file) >= SLAB_SIZE;
+            this.file = file == null ? null : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int storedSlabs = existing ? storedSlabCount(this.file) : -1;
+            this.recovered = storedSlabs > 0;
+            if (recovered) capacity = Math.max(capacity, (long) storedSlabs * SLAB_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        capacity = (capacity + SEGMENT_SIZE - 1) / SEGMENT_SIZE * SEGMENT_SIZE;
+        if (capacity > (1L << (31 + UNIT_SHIFT))) throw new IllegalArgumentException("최대 128GB 까지 지원합니다.");
+        this.segments = new AtomicReferenceArray<>((int) (capacity / SEGMENT_SIZE));
+        this.maxSlabs = (int) (capacity / SLAB_SIZE);
+        this.slabClass = new byte[maxSlabs];
+        if (recovered) {
+            ByteBuffer meta = segment(0);
+            usedSlabs = meta.getInt(META_SLAB_COUNT);
+            for (int s = 1; s < usedSlabs; s++) slabClass[s] = meta.get(META_CLASSES + s);
+        } else {
+            ByteBuffer meta = segment(0);
+            meta.putLong(0, MAGIC);
+            usedSlabs = 1;
+            meta.putInt(META_SLAB_COUNT, usedSlabs);
+        }
+    }
+
+    // 메타데이터의 매직과 슬랩 수 (매직이 다르면 -1, 슬랩 수가 말이 안 되면 손상으로 보고 실패)
+    private static int storedSlabCount(FileChannel file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(META_SLAB_COUNT + 4);
+        while (header.hasRemaining()) {
+            if (file.read(header, header.position()) < 0) return -1;
+        }
+        if (header.getLong(0) != MAGIC) return -1;
+        int slabs = header.getInt(META_SLAB_COUNT);
+        if (slabs < 1 || slabs > SLAB_SIZE - META_CLASSES) throw new IllegalStateException("세션 파일 메타데이터가 손상되었습니다: 슬랩 수 " + slabs);
+        return slabs;
+    }
+
+    // 파일에서 복구한 경우 - 사용 중인 청크마다 visitor 호출, 빈 청크는 빈 목록으로
+    boolean recovered() {
+        return recovered;
+    }
+
+    synchronized void recover(IntConsumer visitor) {
+        Arrays.fill(freeHeads, 0);
+        for (int s = 1; s < usedSlabs; s++) {
+            int chunkUnits = chunkSizeOf(slabClass[s]) >>> UNIT_SHIFT;
+            int first = s * (SLAB_SIZE >>> UNIT_SHIFT);
+            int end = first + (SLAB_SIZE >>> UNIT_SHIFT);
+            for (int address = first; address < end; address += chunkUnits) {
+                if (getInt(address, 0) == USED) visitor.accept(address);
+                else pushFree(slabClass[s], address);
+            }
+        }
+    }
+
+    // size 바이트(헤더 포함)를 담을 청크 할당
+    synchronized int allocate(int size) {
+        int c = classOf(size);
+        if (freeHeads[c] == 0) addSlab(c);
+        int address = freeHeads[c];
+        freeHeads[c] = getInt(address, 4);
+        putInt(address, 0, USED);
+        return address;
+    }
+
+    synchronized void free(int address) {
+        putInt(address, 0, FREE);
+        pushFree(slabClass[slabOf(address)], address);
+    }
+
+    boolean isUsed(int address) {
+        return getInt(address, 0) == USED;
+    }
+
+    // 청크 전체 크기 (헤더 포함)
+    int capacityOf(int address) {
+        return chunkSizeOf(slabClass[slabOf(address)]);
+    }
+
+    long usedBytes() {
+        return (long) usedSlabs * SLAB_SIZE;
+    }
+
+    // 메모리 맵 파일이면 디스크로 내려씀
+    void force() {
+        for (int i = 0; i < segments.length(); i++) {
+            ByteBuffer segment = segments.get(i);
+            if (segment instanceof MappedByteBuffer) ((MappedByteBuffer) segment).force();
+        }
+    }
+
+    void close() {
+        force();
+        if (file != null) {
+            try { file.close(); } catch (IOException ignored) { }
+        }
+    }
+
+    // --- 청크 읽기/쓰기 (절대 위치 접근이라 서로 다른 청크는 동시에 접근 가능) ---
+
+    long getLong(int address, int offset) {
+        long position = position(address, offset);
+        return segment(position).getLong((int) (position % SEGMENT_SIZE));
+    }
+
+    void putLong(int address, int offset, long value) {
+        long position = position(address, offset);
+        segment(position).putLong((int) (position % SEGMENT_SIZE), value);
+    }
+
+    int getInt(int address, int offset) {
+        long position = position(address, offset);
+        return segment(position).getInt((int) (position % SEGMENT_SIZE));
+    }
+
+    void putInt(int address, int offset, int value) {
+        long position = position(address, offset);
+        segment(position).putInt((int) (position % SEGMENT_SIZE), value);
+    }
+
+    void read(int address, int offset, byte[] dst, int length) {
+        long position = position(address, offset);
+        segment(position).get((int) (position % SEGMENT_SIZE), dst, 0, length);
+    }
+
+    void write(int address, int offset, byte[] src, int length) {
+        long position = position(address, offset);
+        segment(position).put((int) (position % SEGMENT_SIZE), src, 0, length);
+    }
+
+    private void addSlab(int c) {
+        if (usedSlabs >= maxSlabs) throw new IllegalStateException("세션 저장 공간이 부족합니다 (" + (usedBytes() >> 20) + "MB)");
+        int s = usedSlabs++;
+        slabClass[s] = (byte) c;
+        ByteBuffer meta = segment(0);
+        meta.put(META_CLASSES + s, (byte) c);
+        meta.putInt(META_SLAB_COUNT, usedSlabs);
+        int chunkUnits = chunkSizeOf(c) >>> UNIT_SHIFT;
+        int first = s * (SLAB_SIZE >>> UNIT_SHIFT);
+        // 뒤에서부터 넣어 앞쪽 청크부터 쓰이게 함
+        for (int address = first + (SLAB_SIZE >>> UNIT_SHIFT) - chunkUnits; address >= first; address -= chunkUnits) {
+            putInt(address, 0, FREE);
+            pushFree(c, address);
+        }
+    }
+
+    private void pushFree(int c, int address) {
+        putInt(address, 4, freeHeads[c]);
+        freeHeads[c] = address;
+    }
+
+    private ByteBuffer segment(long position) {
+        int index = (int) (position / SEGMENT_SIZE);
+        ByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            // 만드는 것만 직렬화 (다이렉트 버퍼/매핑을 두 번 만들지 않음)
+            synchronized (this) {
+                segment = segments.get(index);
+                if (segment == null) {
+                    segment = openSegment(index);
+                    segments.set(index, segment);
+                }
+            }
+        }
+        return segment;
+    }
+
+    private ByteBuffer openSegment(int index) {
+        if (file == null) return ByteBuffer.allocateDirect(SEGMENT_SIZE);
+        try {
+            return file.map(FileChannel.MapMode.READ_WRITE, (long) index * SEGMENT_SIZE, SEGMENT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long position(int address, int offset) {
+        return ((long) address << UNIT_SHIFT) + offset;
+    }
+
+    private static int slabOf(int address) {
+        return (int) (((long) address << UNIT_SHIFT) / SLAB_SIZE);
+    }
+
+    private static int chunkSizeOf(int c) {
+        return 64 << c;
+    }
+
+    private static int classOf(int size) {
+        if (size > MAX_CHUNK) throw new IllegalArgumentException("청크 최대 크기(" + MAX_CHUNK + ")를 넘습니다: " + size);
+        int c = 0;
+        while (chunkSizeOf(c) < size) c++;
+        return c;
+    }
+}
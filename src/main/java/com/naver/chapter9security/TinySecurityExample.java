@@ -1,49 +1,97 @@
 package com.naver.chapter9security;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
 
-@Retention(RetentionPolicy.RUNTIME) @Target({ElementType.METHOD, ElementType.TYPE})
-@interface MySecured { String role() default "USER"; }
+// 클래스에 붙이면 그 클래스(와 하위 클래스)의 모든 public 메서드에 적용, 메서드에 붙은 것이 우선
+@Retention(RetentionPolicy.RUNTIME) @Target({ElementType.METHOD, ElementType.TYPE}) @Inherited
+@interface MySecured {
+    String role() default "USER";
+    // 하나라도 가지면 통과 (anyOf/allOf 가 모두 비어 있으면 role 로 판단)
+    String[] anyOf() default {};
+    // 모두 가져야 통과
+    String[] allOf() default {};
+}
+
+class TinySecurityInterceptor {
+    private static final String BEARER = "Bearer ";
 
-// 가상의 세션 저장소 ( 로그인 정보 보관 )
-class MockSession {
-    public static String loggedInUser = null;
-    public static String userRole = null;
+    private final AuthorizationTable table;
+    // null 이면 세션 방식만 사용
+    private final TokenAuthenticator tokens;
 
-    public static void login(String user, String role) {
-        loggedInUser = user;
-        userRole = role;
-        System.out.println("Security 로그인 성공: " + user + "(" + role + ")");
+    public TinySecurityInterceptor() {
+        this(new RoleHierarchy(RoleHierarchy.DEFAULT));
     }
-}
 
+    public TinySecurityInterceptor(RoleHierarchy hierarchy) {
+        this(hierarchy, null);
+    }
 
-class TinySecurityInterceptor {
-    public boolean preHandle(Object handle, String methodName) throws Exception {
-        // 리플랙션으로 실행될 메서드의 @MySecured 확인
-        Method method = handle.getClass().getDeclaredMethod(methodName, String.class);
+    // Authorization: Bearer 토큰도 받는 모드 (토큰이 없으면 세션으로 묶인 주체를 사용)
+    public TinySecurityInterceptor(RoleHierarchy hierarchy, TokenAuthenticator tokens) {
+        this.table = new AuthorizationTable(hierarchy);
+        this.tokens = tokens;
+    }
 
-        if(method.isAnnotationPresent(MySecured.class)){
-            MySecured secured = method.getAnnotation(MySecured.class);
-            String requireRole = secured.role();
+    // 매핑 시점에 핸들러 id 를 받아 두면 요청마다 메서드 이름 조회도 생략 가능
+    public int resolve(Object handle, String methodName) {
+        return table.handlerId(handle.getClass(), methodName);
+    }
 
-            System.out.println("[Security ] 보호된 자원 접근 시도: " + methodName + "(" + requireRole + ")");
+    public boolean preHandle(Object handle, String methodName) {
+        return preHandle(resolve(handle, methodName));
+    }
 
-            // 1. 인증 체크 (로그인 여부)
-            if(MockSession.loggedInUser == null){
-                System.out.println("[Security] 거부 : 로그인이 필요합니다.");
-                return false;
-            }
+    public boolean preHandle(Object handle, String methodName, String authorization) {
+        return preHandle(resolve(handle, methodName), authorization);
+    }
+
+    public boolean preHandle(int handlerId) {
+        return preHandle(handlerId, null);
+    }
+
+    // authorization: 요청의 Authorization 헤더 값 (없으면 null)
+    public boolean preHandle(int handlerId, String authorization) {
+        if (handlerId < 0) {
+            System.out.println("[Security] 거부 : 알 수 없는 핸들러입니다.");
+            return false;
+        }
+        AuthorizationTable.Rule rule = table.rule(handlerId);
+        // 공개 메서드는 보안 검사를 거치지 않음
+        if (rule == null) {
+            return true;
+        }
 
-            // 2. 인가 체크 (권한 일치 여부)
-            if(!requireRole.equals(MockSession.userRole) && !"ADMIN".equals(MockSession.userRole)){
-                System.out.println("[Security] 거부 : 권한이 부족합니다. ( 보유 권한: " + MockSession.userRole + " )");
+        System.out.println("[Security ] 보호된 자원 접근 시도: " + table.describe(handlerId));
+
+        // 1. 인증 체크 (Bearer 토큰이 있으면 서명 검증, 없으면 요청 스레드에 묶인 주체)
+        Principal principal;
+        if (tokens != null && authorization != null && authorization.startsWith(BEARER)) {
+            principal = tokens.authenticate(authorization.substring(BEARER.length()));
+            if (principal == null) {
+                System.out.println("[Security] 거부 : 토큰이 유효하지 않거나 만료되었습니다.");
                 return false;
             }
+        } else {
+            principal = SecurityContext.current();
+        }
+        if(principal == null){
+            System.out.println("[Security] 거부 : 로그인이 필요합니다.");
+            return false;
+        }
+
+        // 2. 인가 체크 (로그인 시 계산해 둔 유효 권한 비트셋에 대한 비트 연산)
+        if(!rule.permits(principal.authorities)){
+            System.out.println("[Security] 거부 : 권한이 부족합니다. ( 보유 권한: " + String.join(",", principal.roles) + " )");
+            return false;
         }
         return true;
     }
@@ -60,26 +108,152 @@ class AdminController {
     }
 }
 
+// 클래스 단위 보호 - 모든 메서드가 USER 이상 필요 (메서드에 붙은 @MySecured 가 우선)
+@MySecured(role = "USER")
+class MyPageController {
+    public void viewProfile() {
+        System.out.println("[System] 내 정보를 조회합니다.");
+    }
+
+    @MySecured(role = "ADMIN")
+    public void resetPoints(String id, int points) {
+        System.out.println("[System] " + id + " 포인트를 " + points + " 로 초기화.");
+    }
+}
+
+// 세부 권한 표현식 예시
+class ReportController {
+    @MySecured(allOf = {"report:read", "report:export"})
+    public void exportReport(String month) {
+        System.out.println("[System] " + month + " 보고서를 내보냅니다.");
+    }
+
+    @MySecured(anyOf = {"MANAGER", "audit:read"})
+    public void viewAuditLog() {
+        System.out.println("[System] 감사 로그를 조회합니다.");
+    }
+}
+
 public class TinySecurityExample {
+    private static String login(SessionRepository sessions, String user, String role) {
+        String sessionId = sessions.login(user, role);
+        System.out.println("Security 로그인 성공: " + user + "(" + role + ")");
+        return sessionId;
+    }
+
     public static void main(String[] args) throws  Exception {
         AdminController controller = new AdminController();
-        TinySecurityInterceptor interceptor = new TinySecurityInterceptor();
+        // ADMIN > MANAGER > USER 계층 + 세부 권한 (상위 역할은 하위 역할의 권한을 모두 물려받음)
+        RoleHierarchy hierarchy = new RoleHierarchy("ADMIN > MANAGER > USER; AUDITOR")
+                .grant("USER", "notice:read")
+                .grant("MANAGER", "report:read", "report:export")
+                .grant("AUDITOR", "audit:read", "report:read");
+        // 서명 키는 모든 노드가 같은 값을 씀 (예시는 매번 새로 생성)
+        byte[] signingKey = new byte[32];
+        new SecureRandom().nextBytes(signingKey);
+        TokenAuthenticator tokens = new TokenAuthenticator(signingKey, hierarchy, TimeUnit.MINUTES.toMillis(15), 10_000);
+        TinySecurityInterceptor interceptor = new TinySecurityInterceptor(hierarchy, tokens);
+        // 유휴 30분, 절대 8시간
+        SessionStore sessions = new SessionStore(hierarchy, TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(8));
 
         System.out.println("--- 시나리오 1: 비로그인 상태로 관리자 기능 접근 ---");
-        if(interceptor.preHandle(controller, "deleteUser")) {
-            controller.deleteUser("user123");
-        }
+        SecurityContext.runAs(sessions.get(null), () -> {
+            if(interceptor.preHandle(controller, "deleteUser")) {
+                controller.deleteUser("user123");
+            }
+        });
 
         System.out.println("\n--- 시나리오 2: 일반 유저로 로그인 후 관리자 기능 접근 ---");
-        MockSession.login("Gildong", "USER");
-        if (interceptor.preHandle(controller, "deleteUser")){
-            controller.deleteUser("user123");
-        }
+        String userSession = login(sessions, "Gildong", "USER");
+        SecurityContext.runAs(sessions.get(userSession), () -> {
+            if (interceptor.preHandle(controller, "deleteUser")){
+                controller.deleteUser("user123");
+            }
+        });
 
         System.out.println("\n--- 시나리오 3: 관리자로 로그인 후 관리자 기능 접근 ---");
-        MockSession.login("ADMIN_King", "ADMIN");
-        if(interceptor.preHandle(controller, "deleteUser")){
-            controller.deleteUser("user123");
+        String adminSession = login(sessions, "ADMIN_King", "ADMIN");
+        SecurityContext.runAs(sessions.get(adminSession), () -> {
+            if(interceptor.preHandle(controller, "deleteUser")){
+                controller.deleteUser("user123");
+            }
+        });
+
+        System.out.println("\n--- 시나리오 4: 공개 메서드와 클래스 단위 보호 ---");
+        MyPageController myPage = new MyPageController();
+        SecurityContext.runAs(sessions.get(userSession), () -> {
+            if (interceptor.preHandle(controller, "viewNotice")) {
+                controller.viewNotice("user123");
+            }
+            if (interceptor.preHandle(myPage, "viewProfile")) {
+                myPage.viewProfile();
+            }
+            if (interceptor.preHandle(myPage, "resetPoints")) {
+                myPage.resetPoints("user123", 0);
+            }
+        });
+
+        System.out.println("\n--- 시나리오 5: 역할 계층과 세부 권한 표현식 ---");
+        ReportController reports = new ReportController();
+        String auditorSession = login(sessions, "Auditor_Kim", "AUDITOR");
+        SecurityContext.runAs(sessions.get(auditorSession), () -> {
+            if (interceptor.preHandle(reports, "viewAuditLog")) {
+                reports.viewAuditLog();
+            }
+            if (interceptor.preHandle(reports, "exportReport")) {
+                reports.exportReport("2024-05");
+            }
+        });
+        SecurityContext.runAs(sessions.get(adminSession), () -> {
+            if (interceptor.preHandle(reports, "exportReport")) {
+                reports.exportReport("2024-05");
+            }
+        });
+
+        System.out.println("\n--- 시나리오 6: 유휴 시간 초과로 세션 만료 ---");
+        SessionStore shortSessions = new SessionStore(hierarchy, 200, TimeUnit.HOURS.toMillis(1));
+        String shortSession = login(shortSessions, "Gildong", "USER");
+        Thread.sleep(500);
+        System.out.println("[Session] 남은 세션 수: " + shortSessions.size());
+        SecurityContext.runAs(shortSessions.get(shortSession), () -> {
+            if (interceptor.preHandle(myPage, "viewProfile")) {
+                myPage.viewProfile();
+            }
+        });
+        shortSessions.close();
+
+        System.out.println("\n--- 시나리오 7: 힙 밖 세션 저장소를 파일에 두고 재시작 ---");
+        Path sessionFile = Files.createTempFile("tiny-sessions", ".dat");
+        SessionRepository offHeap = new OffHeapSessionStore(hierarchy, TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(8),
+                64L << 20, sessionFile);
+        String managerSession = login(offHeap, "Manager_Lee", "MANAGER");
+        offHeap.setAttribute(managerSession, "lastReport", "2024-05");
+        offHeap.close();
+        offHeap = new OffHeapSessionStore(hierarchy, TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(8),
+                64L << 20, sessionFile);
+        System.out.println("[Session] 재시작 후 복구된 세션 수: " + offHeap.size()
+                + ", lastReport=" + offHeap.getAttribute(managerSession, "lastReport"));
+        SecurityContext.runAs(offHeap.get(managerSession), () -> {
+            if (interceptor.preHandle(reports, "exportReport")) {
+                reports.exportReport("2024-06");
+            }
+        });
+        offHeap.close();
+        Files.delete(sessionFile);
+
+        System.out.println("\n--- 시나리오 8: 서명 토큰으로 세션 없이 인증 ---");
+        String token = tokens.issue("Manager_Park", "MANAGER");
+        System.out.println("Security 토큰 발급: Manager_Park(MANAGER)");
+        for (int i = 0; i < 2; i++) {
+            // 두 번째 요청은 검증 캐시에서 바로 꺼냄
+            if (interceptor.preHandle(reports, "exportReport", "Bearer " + token)) {
+                reports.exportReport("2024-07");
+            }
+        }
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BA" : "AA");
+        if (interceptor.preHandle(reports, "exportReport", "Bearer " + forged)) {
+            reports.exportReport("2024-07");
         }
+        sessions.close();
     }
 }
@@ -0,0 +1,143 @@
+package com.naver.chapter9security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+// HMAC-SHA256 서명 토큰 발급/검증 - 토큰에 주체와 역할, 만료 시각이 들어 있어 서버에 세션을 두지 않음
+// 형식: base64url(본문) "." base64url(HMAC(본문))
+//  - 같은 키를 가진 노드라면 어디서든 검증 가능 (세션 저장소 공유 불필요)
+//  - 최근 검증한 토큰은 서명 -> 주체 캐시로 HMAC 계산과 권한 비트셋 계산을 건너뜀 (최대 maxEntries, 넘치면 임의 하나 제거)
+//  - Mac 은 스레드 안전하지 않고 생성 비용이 커서 스레드마다 하나씩 재사용
+// 서버에 상태가 없으므로 만료 전 강제 폐기는 지원하지 않음 (짧은 만료 시간으로 대신함)
+class TokenAuthenticator {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final RoleHierarchy hierarchy;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ThreadLocal<Mac> macs;
+    private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+
+    TokenAuthenticator(byte[] key, RoleHierarchy hierarchy, long ttlMillis, int maxEntries) {
+        if (key.length < 32) throw new IllegalArgumentException("HMAC 키는 32바이트 이상이어야 합니다.");
+        SecretKeySpec secret = new SecretKeySpec(key.clone(), ALGORITHM);
+        this.hierarchy = hierarchy;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(secret);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // 로그인 - 서명된 토큰을 돌려줌
+    String issue(String name, String... roles) {
+        // 역할 수는 1바이트로 기록하므로 255 개까지 (넘으면 잘려서 다른 역할 목록으로 읽힘)
+        if (roles.length > 255) throw new IllegalArgumentException("역할은 255개까지 가능합니다: " + roles.length);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(System.currentTimeMillis() + ttlMillis);
+            out.writeUTF(name);
+            out.writeByte(roles.length);
+            for (String role : roles) out.writeUTF(role);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String body = ENCODER.encodeToString(bytes.toByteArray());
+        return body + "." + ENCODER.encodeToString(sign(body));
+    }
+
+    // 토큰의 주체 (서명이 틀렸거나 만료되었으면 null)
+    Principal authenticate(String token) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) return null;
+        String body = token.substring(0, dot);
+        String signature = token.substring(dot + 1);
+        long now = System.currentTimeMillis();
+
+        // 1. 최근 검증한 토큰이면 본문까지 같은지만 확인
+        Verified hit = verified.get(signature);
+        if (hit != null && hit.body.equals(body)) {
+            if (hit.expiresAt > now) return hit.principal;
+            verified.remove(signature, hit);
+            return null;
+        }
+
+        // 2. 서명 검증 (상수 시간 비교)
+        byte[] expected;
+        try {
+            expected = DECODER.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, sign(body))) return null;
+
+        // 3. 본문 해석 - 서명이 맞으면 직접 발급한 본문이므로 형식 오류는 없음
+        long expiresAt;
+        Principal principal;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(DECODER.decode(body)))) {
+            expiresAt = in.readLong();
+            String name = in.readUTF();
+            String[] roles = new String[in.readUnsignedByte()];
+            for (int i = 0; i < roles.length; i++) roles[i] = in.readUTF();
+            principal = new Principal(name, roles, hierarchy.authoritiesOf(roles));
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        if (expiresAt <= now) return null;
+
+        if (maxEntries > 0) {
+            if (verified.size() >= maxEntries) evictOne();
+            verified.put(signature, new Verified(body, principal, expiresAt));
+        }
+        return principal;
+    }
+
+    int cachedSize() {
+        return verified.size();
+    }
+
+    private byte[] sign(String body) {
+        return macs.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void evictOne() {
+        Iterator<String> it = verified.keySet().iterator();
+        if (it.hasNext()) {
+            verified.remove(it.next());
+        }
+    }
+
+    private static final class Verified {
+        final String body;
+        final Principal principal;
+        final long expiresAt;
+
+        Verified(String body, Principal principal, long expiresAt) {
+            this.body = body;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.naver.chapter9security;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+// 같은 토큰이 반복해서 들어올 때 검증 캐시 유무에 따른 처리량 비교 (로컬 측정용)
+// 인자: [서로 다른 토큰 수] [측정 초]
+public class TokenAuthenticatorBenchmark {
+    public static void main(String[] args) {
+        int distinct = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        RoleHierarchy hierarchy = new RoleHierarchy(RoleHierarchy.DEFAULT).grant("USER", "notice:read");
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+
+        run("캐시 없음", new TokenAuthenticator(key, hierarchy, TimeUnit.HOURS.toMillis(1), 0), distinct, seconds);
+        run("캐시 " + distinct * 2, new TokenAuthenticator(key, hierarchy, TimeUnit.HOURS.toMillis(1), distinct * 2), distinct, seconds);
+    }
+
+    private static void run(String label, TokenAuthenticator tokens, int distinct, int seconds) {
+        String[] issued = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            issued[i] = tokens.issue("user" + i, "USER");
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long n = 0;
+        while (System.nanoTime() < deadline) {
+            if (tokens.authenticate(issued[(int) (n % distinct)]) == null) throw new IllegalStateException("검증 실패");
+            n++;
+        }
+        System.out.println("[Result] " + label + ": " + n / seconds + " ops/s");
+    }
+}